@@ -0,0 +1,78 @@
+import com.nomiceu.nomilabs.NomiLabs
+import com.nomiceu.nomilabs.groovy.ShapedConversionRecipe
+import net.minecraft.entity.player.EntityPlayer
+import net.minecraft.inventory.Container
+import net.minecraft.inventory.InventoryCrafting
+import net.minecraft.item.crafting.CraftingManager
+
+// Benchmark for Shaped Conversion Recipe Matching. Goes in Post Init.
+// Registers thousands of conversion recipes, then matches every one against matching, mismatched and overfilled
+// grids, and searches the whole registry (as vanilla does) for each grid, logging the time taken. Compare the logged
+// times before and after changes to the matching logic.
+
+final int RECIPES = 5_000
+final int ROUNDS = 100
+
+def container = new Container() {
+    boolean canInteractWith(EntityPlayer playerIn) {
+        return false
+    }
+}
+
+// Register Conversion Recipes: every meta of a few items
+def bases = ['minecraft:wool', 'minecraft:stained_glass', 'minecraft:stained_hardened_clay', 'minecraft:concrete',
+             'minecraft:concrete_powder', 'minecraft:stained_glass_pane', 'minecraft:carpet']
+List<ShapedConversionRecipe> recipes = []
+for (int i = 0; recipes.size() < RECIPES; i++) {
+    crafting.shapedBuilder()
+            .output(item('minecraft:stick'))
+            .matrix([[item(bases[i % bases.size()], i % 16)]])
+            .recipeClassFunction((output, width, height, ingredients) -> {
+                def recipe = new ShapedConversionRecipe(output, ingredients, width, height)
+                recipes.add(recipe)
+                return recipe
+            })
+            .register()
+}
+
+def makeGrid(Container container, List stacks) {
+    def inv = new InventoryCrafting(container, 3, 3)
+    for (int i = 0; i < stacks.size(); i++) {
+        if (stacks[i] != null) inv.setInventorySlotContents(i, stacks[i].copy())
+    }
+    return inv
+}
+
+def grids = [
+        'matching'  : makeGrid(container, [null, null, null, null, item('minecraft:wool', 3), null, null, null, null]),
+        'mismatched': makeGrid(container, [null, null, null, null, item('minecraft:cobblestone'), null, null, null, null]),
+        'overfilled': makeGrid(container, [item('minecraft:wool', 3), null, null, null, item('minecraft:wool', 3), null,
+                                           null, null, null]),
+]
+
+// Warm Up
+for (int i = 0; i < 10; i++) {
+    grids.values().each { inv -> recipes.each { it.matches(inv, null) } }
+}
+
+grids.each { name, inv ->
+    int matched = 0
+    def time = System.nanoTime()
+    for (int i = 0; i < ROUNDS; i++) {
+        for (def recipe : recipes) {
+            if (recipe.matches(inv, null)) matched++
+        }
+    }
+    NomiLabs.LOGGER.info("{}x matches ({} grid, {} conversion recipes, {} matched) took {}ms", ROUNDS * recipes.size(),
+            name, recipes.size(), matched, (System.nanoTime() - time) / 1_000_000)
+}
+
+// Full Registry Search, where indexed recipes without their key items in the grid are skipped
+grids.each { name, inv ->
+    def time = System.nanoTime()
+    for (int i = 0; i < ROUNDS; i++) {
+        CraftingManager.findMatchingRecipe(inv, null)
+    }
+    NomiLabs.LOGGER.info("{}x findMatchingRecipe ({} grid) took {}ms", ROUNDS, name,
+            (System.nanoTime() - time) / 1_000_000)
+}
@@ -0,0 +1,58 @@
+import com.nomiceu.nomilabs.NomiLabs
+import net.minecraft.item.ItemStack
+
+import gregtech.api.recipes.RecipeMaps
+
+// Benchmark for the Virtualized Recipe Map Find, Remove and Find By Output Helpers. Goes in Post Init.
+// Drives 10k calls of each helper type, and logs the time taken. Compare the logged times before and after changes to
+// the query logic.
+// Inputs with empty stacks (as scripts often pass, e.g. from unfinished ingredient lists) are filtered before lookup.
+
+final int CALLS = 10_000
+
+def items = [item('minecraft:stick')]
+def outputs = [item('minecraft:apple') * 64]
+def missing = [item('minecraft:bedrock')]
+def withEmpty = [ItemStack.EMPTY, item('minecraft:stick'), ItemStack.EMPTY]
+def category = RecipeMaps.SIFTER_RECIPES.getPrimaryRecipeCategory()
+
+mods.gregtech.sifter.recipeBuilder()
+    .inputs(item('minecraft:stick'))
+    .outputs(item('minecraft:apple') * 64)
+    .EUt(30).duration(30)
+    .buildAndRegister()
+
+// Warm Up
+for (int i = 0; i < 1000; i++) {
+    mods.gregtech.sifter.find(items, null)
+    mods.gregtech.sifter.findByOutput(outputs, null)
+}
+
+def time = System.nanoTime()
+for (int i = 0; i < CALLS; i++) {
+    mods.gregtech.sifter.find(items, null)
+    mods.gregtech.sifter.find(category, items, null)
+    mods.gregtech.sifter.find({ r -> r.getEUt() <= 30 }, items, null)
+}
+NomiLabs.LOGGER.info("{}x find (any, category, predicate) took {}ms", CALLS, (System.nanoTime() - time) / 1_000_000)
+
+time = System.nanoTime()
+for (int i = 0; i < CALLS; i++) {
+    mods.gregtech.sifter.findByOutput(outputs, null)
+    mods.gregtech.sifter.findByOutput(category, outputs, null)
+    mods.gregtech.sifter.findByOutput(30, outputs, null)
+}
+NomiLabs.LOGGER.info("{}x findByOutput (any, category, voltage) took {}ms", CALLS,
+        (System.nanoTime() - time) / 1_000_000)
+
+time = System.nanoTime()
+for (int i = 0; i < CALLS; i++) {
+    mods.gregtech.sifter.find(missing, null)
+}
+NomiLabs.LOGGER.info("{}x find (no match) took {}ms", CALLS, (System.nanoTime() - time) / 1_000_000)
+
+time = System.nanoTime()
+for (int i = 0; i < CALLS; i++) {
+    mods.gregtech.sifter.find(withEmpty, [null])
+}
+NomiLabs.LOGGER.info("{}x find (filtered inputs) took {}ms", CALLS, (System.nanoTime() - time) / 1_000_000)
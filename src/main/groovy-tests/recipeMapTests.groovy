@@ -1,7 +1,9 @@
 // Import Recipe Search Helpers, used for Chanced Item and Fluid Ingredients
 
 import com.nomiceu.nomilabs.groovy.ChangeRecipeBuilder
+import com.nomiceu.nomilabs.groovy.RecipeMutation
 
+import gregtech.api.recipes.Recipe
 import gregtech.api.recipes.RecipeBuilder
 import gregtech.api.recipes.RecipeMaps
 import gregtech.api.recipes.chance.output.impl.ChancedItemOutput
@@ -215,3 +217,17 @@ mods.gregtech.assembly_line.changeByOutput([metaitem('fusion_reactor.luv')], nul
     }
 
 // See {@link com.nomiceu.nomilabs.groovy.ChangeRecipeBuilder} for more functions!
+
+// Bulk Mutate Recipes
+// `mutateRecipes` applies a mutation to every recipe matching a predicate (optionally in a category), in one pass.
+// All originals are replaced after the pass, and, unlike the change methods, ALL PROPERTIES ARE KEPT.
+// Recipes whose mutation is invalid are logged, and kept unchanged.
+// Returns the number of recipes mutated.
+// See {@link com.nomiceu.nomilabs.groovy.RecipeMutation} for all mutations.
+
+// Example: Making all LV and below Assembler Recipes twice as fast, using twice the power, with 1.5x output
+mods.gregtech.assembler.mutateRecipes({ Recipe recipe -> recipe.EUt <= VA[LV] }) { RecipeMutation mutation ->
+    mutation.changeDuration { duration -> (int) (duration / 2) }
+        .changeEUt { eut -> eut * 2 }
+        .scaleOutputs(1.5)
+}
@@ -113,4 +113,11 @@ material('redstone')
         // Marks this as a 'reload', meaning that components are the original ones from GT or the addon
         .reloadComponents()
         .changeChemicalFormula() // Must call this, so the chemical formula is reloaded
-        .change()
\ No newline at end of file
+        .change()
+
+// Change the Chemical Formulas of Many Materials at Once
+// Takes a map of material to components. Same as calling `setComponents` and `changeChemicalFormula` for each.
+changeChemicalFormulas([
+        (material('sapphire')): [materialstack('aluminium') * 2, materialstack('oxygen') * 3],
+        (material('green_sapphire')): [materialstack('aluminium') * 2, materialstack('oxygen') * 3]
+])
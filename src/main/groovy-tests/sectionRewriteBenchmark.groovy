@@ -0,0 +1,90 @@
+import com.nomiceu.nomilabs.NomiLabs
+import com.nomiceu.nomilabs.remap.LabsRemapHelper
+import com.nomiceu.nomilabs.remap.datafixer.storage.BlockIdBitmap
+import com.nomiceu.nomilabs.remap.datafixer.storage.BlockRewriter
+import net.minecraft.block.Block
+import net.minecraft.init.Blocks
+import net.minecraft.nbt.NBTTagCompound
+import net.minecraft.nbt.NBTTagList
+
+import java.lang.management.ManagementFactory
+
+// Benchmark for Data Fixer Block Rewriting. Goes in Post Init.
+// Rewrites synthetic, fully filled chunks with a rewriter that changes nothing (as for most blocks of an old world),
+// logging sections per second and bytes allocated per section.
+// Also rewrites them with a rewritten id bitmap which none of the sections contain, so every section is skipped.
+// Compare the logged values before and after changes to the section rewriting logic.
+
+final int CHUNKS = 500
+final int SECTIONS = 16
+final int ROUNDS = 5
+
+// Mostly stone and air, with some other common blocks, as in a typical world
+def palette = [Blocks.STONE, Blocks.STONE, Blocks.STONE, Blocks.AIR, Blocks.AIR, Blocks.DIRT, Blocks.GRAVEL,
+               Blocks.COAL_ORE, Blocks.WATER, Blocks.LOG].collect { Block.getIdFromBlock(it) }
+def random = new Random(42)
+
+def makeChunk = { int chunkX, int chunkZ ->
+    def sections = new NBTTagList()
+    for (int y = 0; y < SECTIONS; y++) {
+        byte[] blocks = new byte[4096]
+        byte[] data = new byte[2048]
+        for (int i = 0; i < 4096; i++) {
+            blocks[i] = (byte) palette[random.nextInt(palette.size())]
+        }
+        random.nextBytes(data)
+        def section = new NBTTagCompound()
+        section.setByte('Y', (byte) y)
+        section.setByteArray('Blocks', blocks)
+        section.setByteArray('Data', data)
+        sections.appendTag(section)
+    }
+    def level = new NBTTagCompound()
+    level.setInteger('xPos', chunkX)
+    level.setInteger('zPos', chunkZ)
+    level.setTag('Sections', sections)
+    def chunk = new NBTTagCompound()
+    chunk.setTag('Level', level)
+    return chunk
+}
+
+List<NBTTagCompound> chunks = []
+for (int i = 0; i < CHUNKS; i++) {
+    chunks.add(makeChunk(i % 32, i.intdiv(32)))
+}
+
+BlockRewriter unchanged = { state -> state }
+def threadBean = ManagementFactory.getThreadMXBean()
+def threadId = Thread.currentThread().getId()
+def allocated = {
+    if (threadBean instanceof com.sun.management.ThreadMXBean)
+        return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(threadId)
+    return -1L
+}
+
+// Warm Up
+for (int i = 0; i < 2; i++) {
+    chunks.each { LabsRemapHelper.rewriteBlocks(it, unchanged) }
+}
+
+// Bedrock is not in the palette
+def absent = new BlockIdBitmap()
+absent.set(Block.getIdFromBlock(Blocks.BEDROCK))
+
+def benchmark = { String name, BlockIdBitmap rewrittenIds ->
+    def sections = (long) CHUNKS * SECTIONS * ROUNDS
+    def bytes = allocated()
+    def time = System.nanoTime()
+    for (int i = 0; i < ROUNDS; i++) {
+        chunks.each { LabsRemapHelper.rewriteBlocks(it, unchanged, rewrittenIds) }
+    }
+    def nanos = System.nanoTime() - time
+    bytes = allocated() - bytes
+
+    NomiLabs.LOGGER.info("Rewriting {} sections ({}) took {}ms ({} sections/s, {} bytes allocated/section)", sections,
+            name, nanos.intdiv(1_000_000), (long) (sections * 1_000_000_000d / nanos),
+            bytes < 0 ? 'unknown' : bytes.intdiv(sections))
+}
+
+benchmark('all rewritten', null)
+benchmark('all skipped', absent)
@@ -70,6 +70,11 @@ public class NomiLabs {
         CommonProxy.loadComplete();
     }
 
+    @EventHandler
+    public void serverStarting(FMLServerStartingEvent event) {
+        CommonProxy.serverStarting(event);
+    }
+
     @EventHandler
     public void serverStopped(FMLServerStoppedEvent event) {
         DataFixerHandler.close();
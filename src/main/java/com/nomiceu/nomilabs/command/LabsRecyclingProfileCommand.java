@@ -0,0 +1,54 @@
+package com.nomiceu.nomilabs.command;
+
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.util.text.TextComponentTranslation;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.nomiceu.nomilabs.groovy.RecyclingReloadProfiler;
+
+/**
+ * Shows the last Recycling Reload Profile. An optional argument sets how many of the slowest items are shown.
+ */
+public class LabsRecyclingProfileCommand extends CommandBase {
+
+    @Override
+    @NotNull
+    public String getName() {
+        return "nomilabs_recycling_profile";
+    }
+
+    @Override
+    @NotNull
+    public String getUsage(@NotNull ICommandSender sender) {
+        return "command.nomilabs.recycling_profile.usage";
+    }
+
+    @Override
+    public int getRequiredPermissionLevel() {
+        return 2;
+    }
+
+    @Override
+    public void execute(@NotNull MinecraftServer server, @NotNull ICommandSender sender,
+                        @NotNull String[] args) throws CommandException {
+        if (args.length > 1) throw new WrongUsageException(getUsage(sender));
+        int shown = args.length == 0 ? RecyclingReloadProfiler.DEFAULT_SHOWN_ITEMS : parseInt(args[0], 0);
+
+        var profile = RecyclingReloadProfiler.getLast();
+        if (profile == null) {
+            sender.sendMessage(new TextComponentTranslation("command.nomilabs.recycling_profile.none"));
+            return;
+        }
+
+        sender.sendMessage(new TextComponentTranslation("command.nomilabs.recycling_profile.header"));
+        for (var line : profile.getReport(shown)) {
+            sender.sendMessage(new TextComponentString(line));
+        }
+    }
+}
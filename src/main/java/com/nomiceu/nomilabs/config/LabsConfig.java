@@ -410,6 +410,39 @@ public class LabsConfig {
         @Config.RequiresWorldRestart
         public boolean enableNomiCEuDataFixes = false;
 
+        @Config.Comment({ "Whether to apply data fixes to all chunks of a world before it starts,",
+                "instead of as each chunk loads. Region files are fixed in parallel, one worker per region file.",
+                "This makes the first load with new data fixes slower, but removes the fixing overhead afterwards.",
+                "Only runs when new data fixes are needed, after they have been confirmed and a backup created.",
+                "[default: false]" })
+        @Config.LangKey("config.nomilabs.advanced.enable_offline_data_fixes")
+        @Config.RequiresWorldRestart
+        public boolean enableOfflineDataFixes = false;
+
+        @Config.Comment({ "The amount of worker threads used to apply data fixes to all chunks of a world,",
+                "if Offline Data Fixes are enabled, to Ender Storage save data, and to create fast world backups.",
+                "Set to 0 to use the amount of available processors.",
+                "[default: 0]" })
+        @Config.LangKey("config.nomilabs.advanced.offline_data_fix_threads")
+        @Config.RangeInt(min = 0)
+        public int offlineDataFixThreads = 0;
+
+        @Config.Comment({ "Whether to create a fast world backup before applying data fixes or remaps.",
+                "Fast backups only contain the files that fixes or remaps may change (level.dat, region, data,",
+                "playerdata and EnderStorage files), compressed on multiple threads, into one zip per thread.",
+                "To restore, extract every zip of the backup into the saves folder.",
+                "If this is set to false, the whole world is zipped instead, on one thread.",
+                "[default: true]" })
+        @Config.LangKey("config.nomilabs.advanced.enable_fast_world_backup")
+        public boolean enableFastWorldBackup = true;
+
+        @Config.Comment({ "The compression level of fast world backups, from 0 (none) to 9 (best).",
+                "Region files are already compressed, so higher levels are much slower, for very little gain.",
+                "[default: 1]" })
+        @Config.LangKey("config.nomilabs.advanced.world_backup_compression_level")
+        @Config.RangeInt(min = 0, max = 9)
+        public int worldBackupCompressionLevel = 1;
+
         @Config.Comment("Fluid Registry Settings")
         @Config.LangKey("config.nomilabs.advanced.fluid_registry")
         @Config.Name("fluid registry")
@@ -9,10 +9,12 @@ import net.minecraftforge.common.config.ConfigManager;
 import net.minecraftforge.event.RegistryEvent;
 import net.minecraftforge.event.RegistryEvent.MissingMappings;
 import net.minecraftforge.event.entity.living.LivingEquipmentChangeEvent;
+import net.minecraftforge.event.world.ChunkDataEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.client.event.ConfigChangedEvent;
 import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.registry.EntityEntry;
@@ -22,6 +24,7 @@ import com.cleanroommc.groovyscript.event.GsHandEvent;
 import com.cleanroommc.groovyscript.event.ScriptRunEvent;
 import com.nomiceu.nomilabs.LabsValues;
 import com.nomiceu.nomilabs.block.registry.LabsBlocks;
+import com.nomiceu.nomilabs.command.LabsRecyclingProfileCommand;
 import com.nomiceu.nomilabs.config.LabsConfig;
 import com.nomiceu.nomilabs.creativetab.registry.LabsCreativeTabs;
 import com.nomiceu.nomilabs.dimension.LabsDimensions;
@@ -32,6 +35,7 @@ import com.nomiceu.nomilabs.gregtech.block.registry.LabsMetaBlocks;
 import com.nomiceu.nomilabs.gregtech.material.registry.LabsMaterials;
 import com.nomiceu.nomilabs.gregtech.metatileentity.registry.LabsMetaTileEntities;
 import com.nomiceu.nomilabs.gregtech.mixinhelper.RecipeMapLogic;
+import com.nomiceu.nomilabs.gregtech.mixinhelper.RecyclingStackInterner;
 import com.nomiceu.nomilabs.gregtech.prefix.LabsMaterialFlags;
 import com.nomiceu.nomilabs.gregtech.prefix.LabsOrePrefix;
 import com.nomiceu.nomilabs.gregtech.recipe.LabsRecipeMaps;
@@ -45,6 +49,7 @@ import com.nomiceu.nomilabs.item.ItemExcitationCoil;
 import com.nomiceu.nomilabs.item.registry.LabsItems;
 import com.nomiceu.nomilabs.network.LabsNetworkHandler;
 import com.nomiceu.nomilabs.recipe.HandFramingRecipe;
+import com.nomiceu.nomilabs.recipe.LabsCraftingIndex;
 import com.nomiceu.nomilabs.remap.LabsRemappers;
 import com.nomiceu.nomilabs.remap.Remapper;
 import com.nomiceu.nomilabs.remap.datafixer.DataFixerHandler;
@@ -106,6 +111,11 @@ public class CommonProxy {
         FluidRegistryMixinHelper.loadComplete();
 
         RecipeMapLogic.clearAll();
+        RecyclingStackInterner.clear();
+    }
+
+    public static void serverStarting(FMLServerStartingEvent event) {
+        event.registerServerCommand(new LabsRecyclingProfileCommand());
     }
 
     @SubscribeEvent
@@ -162,6 +172,11 @@ public class CommonProxy {
         event.getWorld().getWorldInfo().setDifficultyLocked(true);
     }
 
+    @SubscribeEvent
+    public static void onChunkSave(ChunkDataEvent.Save event) {
+        DataFixerHandler.stampChunk(event.getData());
+    }
+
     @SubscribeEvent
     public static void onEquipmentChangeEvent(LivingEquipmentChangeEvent event) {
         ItemExcitationCoil.onEquipmentChange(event);
@@ -211,6 +226,8 @@ public class CommonProxy {
 
     @SubscribeEvent
     public static void afterScriptLoad(ScriptRunEvent.Post event) {
+        LabsCraftingIndex.clear();
+
         if (Loader.isModLoaded(LabsValues.NUCLEARCRAFT_MODID)) {
             NCActiveCoolerHelper.afterScriptLoad();
         }
@@ -12,6 +12,13 @@ public interface AccessibleMaterial {
 
     void setComponents(ImmutableList<MaterialStack> components, boolean changeFormula);
 
+    /**
+     * Same as {@link #setComponents(ImmutableList, boolean)}, but does not recalculate the decomposition type.
+     * Used when many materials are changed at once, see
+     * {@link com.nomiceu.nomilabs.groovy.MaterialHelper#setComponents(Map, boolean)}.
+     */
+    void setComponentsWithoutDecomp(ImmutableList<MaterialStack> components, boolean changeFormula);
+
     void setComponents(ImmutableList<MaterialStack> components);
 
     void recalculateDecompositionType();
@@ -0,0 +1,9 @@
+package com.nomiceu.nomilabs.gregtech.mixinhelper;
+
+public interface AccessibleRecipe {
+
+    /**
+     * Gets the recipe's canonical input fingerprint. Computed once, then cached.
+     */
+    RecipeInputFingerprint getInputFingerprint();
+}
@@ -30,4 +30,13 @@ public interface AccessibleRecipeMap {
     List<Recipe> findRecipeByOutput(long voltage, List<ItemStack> inputs, List<FluidStack> fluidInputs,
                                     List<ChancedItemOutput> chancedItems, List<ChancedFluidOutput> chancedFluids,
                                     boolean exactVoltage);
+
+    /**
+     * Compiles (re-inserts) each of the recipes, skipping any recipe given more than once.
+     * <p>
+     * Not a bulk insertion: each recipe is still compiled into the lookup tree one by one.
+     *
+     * @return Number of recipes compiled.
+     */
+    int compileRecipes(@NotNull Collection<Recipe> recipes);
 }
@@ -0,0 +1,160 @@
+package com.nomiceu.nomilabs.gregtech.mixinhelper;
+
+import java.util.*;
+
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fluids.Fluid;
+import net.minecraftforge.fluids.FluidStack;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import gregicality.multiblocks.api.fluids.GCYMFluidStorageKeys;
+import gregtech.api.GregTechAPI;
+import gregtech.api.fluids.store.FluidStorageKeys;
+import gregtech.api.recipes.Recipe;
+import gregtech.api.recipes.RecipeMap;
+import gregtech.api.unification.OreDictUnifier;
+import gregtech.api.unification.material.Material;
+import gregtech.api.unification.ore.OrePrefix;
+import gregtech.api.unification.stack.UnificationEntry;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+
+/**
+ * Index from Material to the Composition Recipes (Decomposition, ABS and Mixer) generated for it.
+ * <p>
+ * Populated as recipes are compiled into the Composition Recipe Maps (via the compile hook in the Recipe Map Mixin),
+ * so it is built while GregTech generates material recipes, then kept up to date via the remove and clear hooks.
+ */
+public class CompositionRecipeIndex {
+
+    private static final Map<CompositionRecipeType, Map<Material, Set<Recipe>>> index = new EnumMap<>(
+            CompositionRecipeType.class);
+
+    static {
+        for (var type : CompositionRecipeType.values()) {
+            index.put(type, new Object2ObjectOpenHashMap<>());
+        }
+    }
+
+    @Nullable
+    private static Map<Fluid, Material> fluidToMaterial = null;
+
+    /**
+     * Gets the recipes, in the type's map, that were generated for a material. Result is a copy, so it is safe to
+     * remove the returned recipes from the map whilst iterating.
+     */
+    @NotNull
+    public static List<Recipe> get(@NotNull CompositionRecipeType type, @NotNull Material material) {
+        var recipes = index.get(type).get(material);
+        if (recipes == null || recipes.isEmpty()) return Collections.emptyList();
+        return new ObjectArrayList<>(recipes);
+    }
+
+    public static void add(@NotNull RecipeMap<?> map, @NotNull Recipe recipe) {
+        var type = CompositionRecipeType.getByMap(map);
+        if (type == null) return;
+        var material = getMaterial(type, recipe);
+        if (material == null) return;
+        index.get(type).computeIfAbsent(material, (k) -> new ObjectLinkedOpenHashSet<>(1)).add(recipe);
+    }
+
+    public static void remove(@NotNull RecipeMap<?> map, @NotNull Recipe recipe) {
+        var type = CompositionRecipeType.getByMap(map);
+        if (type == null) return;
+        var material = getMaterial(type, recipe);
+        if (material == null) return;
+        var recipes = index.get(type).get(material);
+        if (recipes == null) return;
+        recipes.remove(recipe);
+        if (recipes.isEmpty()) index.get(type).remove(material);
+    }
+
+    public static void clear(@NotNull RecipeMap<?> map) {
+        var type = CompositionRecipeType.getByMap(map);
+        if (type == null) return;
+        index.get(type).clear();
+    }
+
+    /**
+     * Gets the material a recipe was generated for, using the same shape the old map searches looked for.
+     */
+    @Nullable
+    private static Material getMaterial(@NotNull CompositionRecipeType type, @NotNull Recipe recipe) {
+        switch (type) {
+            case ELECTROLYZER:
+            case CENTRIFUGE:
+                // Single Dust Input, or Single Fluid Input
+                if (recipe.getInputs().size() == 1 && recipe.getFluidInputs().isEmpty())
+                    return getDustMaterial(recipe.getInputs().get(0).getInputStacks());
+                if (recipe.getInputs().isEmpty() && recipe.getFluidInputs().size() == 1) {
+                    var fluid = recipe.getFluidInputs().get(0).getInputFluidStack();
+                    var material = getFluidMaterial(fluid);
+                    if (material == null || material.getFluid() != fluid.getFluid()) return null;
+                    return material;
+                }
+                return null;
+            case ALLOY_BLAST: {
+                // Single Fluid Output
+                if (!recipe.getOutputs().isEmpty() || recipe.getFluidOutputs().size() != 1 ||
+                        !recipe.getChancedOutputs().getChancedEntries().isEmpty())
+                    return null;
+                var fluid = recipe.getFluidOutputs().get(0);
+                var material = getFluidMaterial(fluid);
+                if (material == null || getABSFluid(material) != fluid.getFluid()) return null;
+                return material;
+            }
+            case MIXER:
+                // Single Dust Output
+                if (recipe.getOutputs().size() != 1 || !recipe.getFluidOutputs().isEmpty() ||
+                        !recipe.getChancedOutputs().getChancedEntries().isEmpty())
+                    return null;
+                return getDustMaterial(new ItemStack[] { recipe.getOutputs().get(0) });
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Gets the fluid ABS recipes of a material output. Molten if it exists, else Liquid.
+     */
+    @Nullable
+    private static Fluid getABSFluid(@NotNull Material material) {
+        Fluid fluid = material.getFluid(GCYMFluidStorageKeys.MOLTEN);
+        if (fluid == null) {
+            fluid = material.getFluid(FluidStorageKeys.LIQUID);
+        }
+        return fluid;
+    }
+
+    @Nullable
+    private static Material getDustMaterial(ItemStack[] stacks) {
+        if (stacks == null || stacks.length == 0) return null;
+        UnificationEntry entry = OreDictUnifier.getUnificationEntry(stacks[0]);
+        if (entry == null || entry.orePrefix != OrePrefix.dust) return null;
+        return entry.material;
+    }
+
+    @Nullable
+    private static Material getFluidMaterial(@Nullable FluidStack fluid) {
+        if (fluid == null) return null;
+        if (fluidToMaterial == null) {
+            fluidToMaterial = new Object2ObjectOpenHashMap<>();
+            for (var material : GregTechAPI.materialManager.getRegisteredMaterials()) {
+                if (!material.hasFluid()) continue;
+                // Default Fluid (Decomposition), then Molten and Liquid (ABS)
+                putFluid(material.getFluid(), material);
+                putFluid(material.getFluid(GCYMFluidStorageKeys.MOLTEN), material);
+                putFluid(material.getFluid(FluidStorageKeys.LIQUID), material);
+            }
+        }
+        return fluidToMaterial.get(fluid.getFluid());
+    }
+
+    private static void putFluid(@Nullable Fluid fluid, Material material) {
+        if (fluid == null || fluidToMaterial == null) return;
+        fluidToMaterial.putIfAbsent(fluid, material);
+    }
+}
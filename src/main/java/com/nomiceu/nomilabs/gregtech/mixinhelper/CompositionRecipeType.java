@@ -1,5 +1,7 @@
 package com.nomiceu.nomilabs.gregtech.mixinhelper;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.nomiceu.nomilabs.groovy.ChangeComposition;
 
 import gregicality.multiblocks.api.recipes.GCYMRecipeMaps;
@@ -42,6 +44,8 @@ public enum CompositionRecipeType {
         }
     };
 
+    private static final CompositionRecipeType[] VALUES = values();
+
     public final RecipeMap<?> map;
 
     CompositionRecipeType(RecipeMap<?> map) {
@@ -49,4 +53,13 @@ public enum CompositionRecipeType {
     }
 
     public abstract void remove(Material input);
+
+    @Nullable
+    public static CompositionRecipeType getByMap(RecipeMap<?> map) {
+        // Called for every compiled recipe, so don't copy the values array
+        for (var type : VALUES) {
+            if (type.map == map) return type;
+        }
+        return null;
+    }
 }
@@ -1,20 +1,25 @@
 package com.nomiceu.nomilabs.gregtech.mixinhelper;
 
+import java.util.Collection;
+
 import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import com.nomiceu.nomilabs.groovy.ShapedConversionRecipe;
+import com.nomiceu.nomilabs.recipe.IndexedCraftingRecipe;
 
 import gregtech.common.crafting.GTShapedOreRecipe;
 
 /**
  * A disassembling recipe that assumes that there is only one input.
  */
-public class GTDisassemblingOreRecipe extends GTShapedOreRecipe {
+public class GTDisassemblingOreRecipe extends GTShapedOreRecipe implements IndexedCraftingRecipe {
 
     private final int inputLocation;
     private Integer[] cache;
@@ -39,4 +44,11 @@ public class GTDisassemblingOreRecipe extends GTShapedOreRecipe {
         return ShapedConversionRecipe.matchesShaped(inv, inputLocation,
                 (stack) -> input.get(inputLocation).apply(stack), cache, (cache1) -> cache = cache1);
     }
+
+    @Override
+    @Nullable
+    public Collection<Item> getKeyItems() {
+        if (inputLocation == -1) return null;
+        return ShapedConversionRecipe.getKeyItems(input.get(inputLocation).getMatchingStacks());
+    }
 }
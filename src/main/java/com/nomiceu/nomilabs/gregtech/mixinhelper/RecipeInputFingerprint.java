@@ -0,0 +1,63 @@
+package com.nomiceu.nomilabs.gregtech.mixinhelper;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Multiset;
+
+import gregtech.api.recipes.ingredients.GTRecipeInput;
+
+/**
+ * Canonical, order-independent fingerprint of a recipe's item inputs.
+ * <p>
+ * The hash is taken over the sorted hashes of each input, so two recipes with the same inputs (as a multiset) always
+ * have the same hash. Comparing is therefore a hash comparison, with a multiset comparison only done if the hashes
+ * are equal, to guard against collisions. That multiset is also built once, then cached.
+ */
+public class RecipeInputFingerprint {
+
+    private final List<GTRecipeInput> inputs;
+    private final int hash;
+
+    // Only created if a hash collision check is needed, then kept
+    private Multiset<GTRecipeInput> multiset = null;
+
+    public RecipeInputFingerprint(@NotNull List<GTRecipeInput> inputs) {
+        this.inputs = inputs;
+
+        int[] hashes = new int[inputs.size()];
+        for (int i = 0; i < inputs.size(); i++) {
+            hashes[i] = inputs.get(i).hashCode();
+        }
+        Arrays.sort(hashes);
+        this.hash = Arrays.hashCode(hashes);
+    }
+
+    public int getHash() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RecipeInputFingerprint that = (RecipeInputFingerprint) o;
+        if (hash != that.hash || inputs.size() != that.inputs.size()) return false;
+
+        // Hashes equal, confirm with Multiset (inputs can be duplicated)
+        return getMultiset().equals(that.getMultiset());
+    }
+
+    private Multiset<GTRecipeInput> getMultiset() {
+        if (multiset == null) multiset = ImmutableMultiset.copyOf(inputs);
+        return multiset;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
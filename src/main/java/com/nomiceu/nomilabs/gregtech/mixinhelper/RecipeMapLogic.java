@@ -3,7 +3,6 @@ package com.nomiceu.nomilabs.gregtech.mixinhelper;
 import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.fluids.FluidStack;
@@ -212,10 +211,13 @@ public class RecipeMapLogic {
         EitherOrBoth<Set<Recipe>, OutputBranch> result = targetMap.get(current);
         if (result != null) {
             if (result.getLeft().isPresent() && count == outputs.size() - 1) {
-                // noinspection SimplifyStreamApiCallChains
-                var found = result.getLeft().get().stream().filter(canHandle).collect(Collectors.toList());
-                if (!found.isEmpty()) {
-                    foundRecipes.addAll(found);
+                boolean found = false;
+                for (var recipe : result.getLeft().get()) {
+                    if (!canHandle.test(recipe)) continue;
+                    foundRecipes.add(recipe);
+                    found = true;
+                }
+                if (found) {
                     if (LabsConfig.groovyScriptSettings.gtRecipeSearchMode ==
                             LabsConfig.GroovyScriptSettings.GTRecipeSearchMode.FAST_TREE)
                         return true;
@@ -0,0 +1,117 @@
+package com.nomiceu.nomilabs.gregtech.mixinhelper;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fluids.FluidStack;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import gregtech.api.recipes.Recipe;
+import gregtech.api.recipes.category.GTRecipeCategory;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Small query engine backing the Virtualized Recipe Map find, remove and change helpers.
+ * <p>
+ * Predicates are shared (and cached per category), and input lists are only filtered when they actually contain
+ * empty stacks or fluids. Filtered lists are written into reusable per-thread buffers, instead of streamed into a new
+ * list on every call. A filtered list is only valid until the next filter call (of the same kind) on that thread, so
+ * callers must only pass it straight into a lookup, which converts it before running any predicate.
+ */
+public class RecipeMapQuery {
+
+    public static final Predicate<Recipe> ANY = (r) -> true;
+
+    private static final Predicate<Recipe> NO_CATEGORY = (r) -> r.getRecipeCategory() == null;
+
+    // Concurrent, as recipe maps may be queried off the main thread (e.g. by JEI plugins)
+    private static final Map<GTRecipeCategory, Predicate<Recipe>> categoryPredicates = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<ObjectArrayList<ItemStack>> itemBuffer = ThreadLocal
+            .withInitial(ObjectArrayList::new);
+    private static final ThreadLocal<ObjectArrayList<FluidStack>> fluidBuffer = ThreadLocal
+            .withInitial(ObjectArrayList::new);
+
+    @NotNull
+    public static Predicate<Recipe> inCategory(@Nullable GTRecipeCategory category) {
+        // Concurrent Hash Map does not allow null keys
+        if (category == null) return NO_CATEGORY;
+        return categoryPredicates.computeIfAbsent(category,
+                (k) -> (r) -> Objects.equals(k, r.getRecipeCategory()));
+    }
+
+    @NotNull
+    public static Predicate<Recipe> withVoltage(long voltage, boolean exactVoltage) {
+        if (exactVoltage) return (r) -> r.getEUt() == voltage;
+        return (r) -> r.getEUt() <= voltage;
+    }
+
+    /**
+     * Returns the list unchanged if null-safe and it contains no empty stacks, else a filtered copy, in this thread's
+     * reused item buffer.
+     */
+    @NotNull
+    public static List<ItemStack> filterItems(@Nullable List<ItemStack> items) {
+        if (items == null || items.isEmpty()) return Collections.emptyList();
+
+        int firstInvalid = -1;
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).isEmpty()) {
+                firstInvalid = i;
+                break;
+            }
+        }
+        if (firstInvalid == -1) return items;
+
+        var result = itemBuffer.get();
+        result.clear();
+        for (int i = 0; i < items.size(); i++) {
+            var stack = items.get(i);
+            if (i < firstInvalid || !stack.isEmpty()) result.add(stack);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the list unchanged if it contains no null or empty fluids, else a filtered copy, in this thread's reused
+     * fluid buffer.
+     */
+    @NotNull
+    public static List<FluidStack> filterFluids(@Nullable List<FluidStack> fluids) {
+        if (fluids == null || fluids.isEmpty()) return Collections.emptyList();
+
+        int firstInvalid = -1;
+        for (int i = 0; i < fluids.size(); i++) {
+            if (isEmpty(fluids.get(i))) {
+                firstInvalid = i;
+                break;
+            }
+        }
+        if (firstInvalid == -1) return fluids;
+
+        var result = fluidBuffer.get();
+        result.clear();
+        for (int i = 0; i < fluids.size(); i++) {
+            var fluid = fluids.get(i);
+            if (i < firstInvalid || !isEmpty(fluid)) result.add(fluid);
+        }
+        return result;
+    }
+
+    @NotNull
+    public static <T> List<T> validateList(@Nullable List<T> list) {
+        if (list == null || list.isEmpty()) return Collections.emptyList();
+        return list;
+    }
+
+    private static boolean isEmpty(@Nullable FluidStack fluid) {
+        return fluid == null || fluid.amount == 0;
+    }
+}
@@ -0,0 +1,77 @@
+package com.nomiceu.nomilabs.gregtech.mixinhelper;
+
+import java.util.Map;
+import java.util.Set;
+
+import net.minecraft.nbt.NBTTagCompound;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.nomiceu.nomilabs.NomiLabs;
+
+import gregtech.api.recipes.Recipe;
+import gregtech.api.recipes.category.GTRecipeCategory;
+import gregtech.api.recipes.category.RecipeCategories;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+
+/**
+ * Interns the immutable data of the item outputs of Recycling Recipes (Arc Furnace, Macerator and Extractor).
+ * <p>
+ * Every recipe keeps its own output stacks (stacks are mutable, so are never shared), which already share their item.
+ * Equal NBT tags across all recycling outputs are replaced with one shared copy, which no stack ever owned before.
+ * <p>
+ * As a guard, the pool is keyed by private copies that are never handed out: a shared tag which no longer equals its
+ * key (modified in place) is not shared any further, and is replaced by a new copy.
+ * <p>
+ * Cleared at the end of game load, and after each recycling reload, so the pool is never held between script runs.
+ */
+public class RecyclingStackInterner {
+
+    private static final Set<GTRecipeCategory> recyclingCategories = new ReferenceOpenHashSet<>(
+            new GTRecipeCategory[] { RecipeCategories.ARC_FURNACE_RECYCLING, RecipeCategories.MACERATOR_RECYCLING,
+                    RecipeCategories.EXTRACTOR_RECYCLING });
+
+    /* Private copy -> shared copy */
+    private static Map<NBTTagCompound, NBTTagCompound> pool = new Object2ObjectOpenHashMap<>();
+
+    private static int interned = 0;
+
+    /**
+     * Interns the output tags of a recipe, if it is a recycling recipe.
+     */
+    public static void internIfRecycling(@NotNull Recipe recipe) {
+        if (!recyclingCategories.contains(recipe.getRecipeCategory())) return;
+        for (var output : recipe.getOutputs()) {
+            var tag = output.getTagCompound();
+            if (output.isEmpty() || tag == null) continue;
+            output.setTagCompound(intern(tag));
+        }
+    }
+
+    @NotNull
+    private static NBTTagCompound intern(@NotNull NBTTagCompound tag) {
+        var shared = pool.get(tag);
+        if (shared != null && !shared.equals(tag)) {
+            // The shared tag was modified in place, stop sharing it
+            NomiLabs.LOGGER.warn("Shared Recycling Output Tag {} was modified! Not sharing it further.", shared);
+            shared = null;
+        }
+
+        if (shared == null) {
+            shared = tag.copy();
+            pool.put(tag.copy(), shared);
+            return shared;
+        }
+        interned++;
+        return shared;
+    }
+
+    public static void clear() {
+        if (interned > 0)
+            NomiLabs.LOGGER.info("Shared {} Recycling Output Tags, across {} unique tags.", interned, pool.size());
+        // Replace, instead of clearing, so the pool's memory is released
+        pool = new Object2ObjectOpenHashMap<>();
+        interned = 0;
+    }
+}
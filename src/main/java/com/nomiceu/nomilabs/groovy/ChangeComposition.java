@@ -1,27 +1,30 @@
 package com.nomiceu.nomilabs.groovy;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import net.minecraft.item.ItemStack;
-import net.minecraftforge.fluids.Fluid;
 import net.minecraftforge.fluids.FluidStack;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import com.cleanroommc.groovyscript.api.GroovyBlacklist;
+import com.google.common.collect.ImmutableList;
 import com.nomiceu.nomilabs.NomiLabs;
 import com.nomiceu.nomilabs.gregtech.mixinhelper.AccessibleMaterial;
 import com.nomiceu.nomilabs.gregtech.mixinhelper.AccessibleRecipeMap;
+import com.nomiceu.nomilabs.gregtech.mixinhelper.CompositionRecipeIndex;
 import com.nomiceu.nomilabs.gregtech.mixinhelper.CompositionRecipeType;
 import com.nomiceu.nomilabs.mixin.gregtech.AccessibleDecompositionRecipeHandler;
 
-import gregicality.multiblocks.api.fluids.GCYMFluidStorageKeys;
 import gregicality.multiblocks.api.recipes.GCYMRecipeMaps;
-import gregtech.api.fluids.store.FluidStorageKeys;
 import gregtech.api.recipes.Recipe;
+import gregtech.api.recipes.RecipeMap;
 import gregtech.api.recipes.RecipeMaps;
 import gregtech.api.recipes.ingredients.GTRecipeFluidInput;
 import gregtech.api.recipes.ingredients.GTRecipeInput;
@@ -32,7 +35,9 @@ import gregtech.api.unification.material.Material;
 import gregtech.api.unification.material.properties.PropertyKey;
 import gregtech.api.unification.ore.OrePrefix;
 import gregtech.api.unification.stack.MaterialStack;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 
 @GroovyBlacklist
 public class ChangeComposition {
@@ -51,20 +56,45 @@ public class ChangeComposition {
         NomiLabs.LOGGER.info("Reloading Composition Recipes took {}ms", System.currentTimeMillis() - time);
     }
 
-    public static void restore(CompositionBuilder.CompositionSpecification spec) {
-        var mat = (AccessibleMaterial) spec.material;
+    /**
+     * Restores the original components and recipes of every changed material.
+     * <p>
+     * Each material is only restored once, even if it was changed multiple times, and original recipes are re-inserted
+     * grouped by recipe map (each recipe once), after all generated recipes have been removed.
+     * <p>
+     * Each original recipe is still compiled separately, so the cost grows with the number of changed compositions.
+     */
+    public static void restore(Collection<CompositionBuilder.CompositionSpecification> specs) {
+        if (specs.isEmpty()) return;
+        var time = System.currentTimeMillis();
+
+        Map<Material, ImmutableList<MaterialStack>> components = new Object2ObjectLinkedOpenHashMap<>();
+        for (var spec : specs) {
+            components.computeIfAbsent(spec.material, (k) -> ((AccessibleMaterial) k).getOriginalComponents());
+        }
 
         // Replace Chemical Formula and components
-        mat.setComponents(mat.getOriginalComponents(), true);
-
-        // Remove New Generated Recipes & Restore Old Recipes
-        for (var entry : mat.getOriginalRecipes().entrySet()) {
-            entry.getKey().remove(spec.material);
-            if (entry.getValue() == null) continue;
-            for (var recipe : entry.getValue()) {
-                entry.getKey().map.compileRecipe(recipe);
+        MaterialHelper.setComponents(components, true);
+
+        // Remove New Generated Recipes & Collect Old Recipes
+        Map<RecipeMap<?>, List<Recipe>> toReinsert = new Object2ObjectLinkedOpenHashMap<>();
+        for (var material : components.keySet()) {
+            for (var entry : ((AccessibleMaterial) material).getOriginalRecipes().entrySet()) {
+                entry.getKey().remove(material);
+                if (entry.getValue() == null) continue;
+                toReinsert.computeIfAbsent(entry.getKey().map, (k) -> new ObjectArrayList<>())
+                        .addAll(entry.getValue());
             }
         }
+
+        // Restore Old Recipes
+        int restored = 0;
+        for (var entry : toReinsert.entrySet()) {
+            restored += ((AccessibleRecipeMap) entry.getKey()).compileRecipes(entry.getValue());
+        }
+
+        NomiLabs.LOGGER.info("Restoring Compositions ({} materials, {} recipes) took {}ms", components.size(),
+                restored, System.currentTimeMillis() - time);
     }
 
     private static void changeDecomp(Deque<CompositionBuilder.CompositionSpecification> specs) {
@@ -175,48 +205,33 @@ public class ChangeComposition {
 
     private static void finalize(Deque<CompositionBuilder.CompositionSpecification> specs) {
         // Replace Chemical Formula for those that need it, else revert the change to the material's components
-        var iter = specs.descendingIterator();
-        while (iter.hasNext()) {
-            var spec = iter.next();
+        // Newest spec for each material wins (Deque is LIFO, so the first one found is the newest)
+        Map<Material, ImmutableList<MaterialStack>> changeFormula = new Object2ObjectLinkedOpenHashMap<>();
+        Set<Material> seen = new ObjectOpenHashSet<>();
+        for (var spec : specs) {
+            if (!seen.add(spec.material)) continue;
             var mat = (AccessibleMaterial) spec.material;
             if (spec.changeChemicalFormula)
-                mat.setComponents(spec.components, true);
+                changeFormula.put(spec.material, spec.components);
             else
                 mat.setComponents(mat.getOriginalComponents());
         }
+        MaterialHelper.setComponents(changeFormula, true);
     }
 
     public static void removeDecompRecipe(CompositionRecipeType type, Material input) {
-        ItemStack itemInput = ItemStack.EMPTY;
-        FluidStack fluidInput = null;
-        if (input.hasProperty(PropertyKey.DUST))
-            itemInput = OreDictUnifier.get(OrePrefix.dust, input);
-        else
-            fluidInput = input.getFluid(1);
-        var map = type.map;
-        var recipe = map.find(itemInput.isEmpty() ? Collections.emptyList() : Collections.singletonList(itemInput),
-                fluidInput == null ? Collections.emptyList() : Collections.singletonList(fluidInput),
-                (recipe1) -> true);
+        var recipe = selectDecompRecipe(type, input, CompositionRecipeIndex.get(type, input));
         ((AccessibleMaterial) input).setOriginalRecipes(type,
                 recipe == null ? Collections.emptyList() : Collections.singletonList(recipe));
         if (recipe == null) return;
-        NomiLabs.LOGGER.debug("Removing Decomp Recipe for {} @ {} in recipe map {}.",
-                itemInput.getItem().getRegistryName(), itemInput.getMetadata(),
-                map.getUnlocalizedName());
-        map.removeRecipe(recipe);
+        NomiLabs.LOGGER.debug("Removing Decomp Recipe for {} in recipe map {}.",
+                input.getRegistryName(), type.map.getUnlocalizedName());
+        type.map.removeRecipe(recipe);
     }
 
     public static void removeABSRecipe(Material input) {
-        Fluid fluid = input.getFluid(GCYMFluidStorageKeys.MOLTEN);
-        if (fluid == null) {
-            fluid = input.getFluid(FluidStorageKeys.LIQUID);
-        }
-        var recipes = ((AccessibleRecipeMap) GCYMRecipeMaps.ALLOY_BLAST_RECIPES)
-                .findByOutput(Collections.emptyList(), Collections.singletonList(new FluidStack(fluid, 1)),
-                        Collections.emptyList(), Collections.emptyList(), (r) -> true);
-        ((AccessibleMaterial) input).setOriginalRecipes(CompositionRecipeType.ALLOY_BLAST,
-                recipes == null ? Collections.emptyList() : recipes);
-        if (recipes == null) return;
+        var recipes = CompositionRecipeIndex.get(CompositionRecipeType.ALLOY_BLAST, input);
+        ((AccessibleMaterial) input).setOriginalRecipes(CompositionRecipeType.ALLOY_BLAST, recipes);
         for (var recipe : recipes) {
             NomiLabs.LOGGER.debug("Removing ABS Recipe with inputs {} and fluid inputs {}.", recipe.getInputs(),
                     recipe.getFluidInputs());
@@ -226,21 +241,78 @@ public class ChangeComposition {
 
     @Nullable
     public static Recipe removeMixerRecipe(Material input) {
-        var recipes = ((AccessibleRecipeMap) RecipeMaps.MIXER_RECIPES)
-                .findByOutput(Collections.singletonList(OreDictUnifier.get(OrePrefix.dust, input)),
-                        Collections.emptyList(),
-                        Collections.emptyList(), Collections.emptyList(), (r) -> true);
-        ((AccessibleMaterial) input).setOriginalRecipes(CompositionRecipeType.MIXER,
-                recipes == null ? Collections.emptyList() : recipes);
-        if (recipes == null) return null;
+        var recipes = CompositionRecipeIndex.get(CompositionRecipeType.MIXER, input);
+        ((AccessibleMaterial) input).setOriginalRecipes(CompositionRecipeType.MIXER, recipes);
+        if (recipes.isEmpty()) return null;
         for (var recipe : recipes) {
             NomiLabs.LOGGER.debug("Removing Mixer Recipe with inputs {} and fluid inputs {}.", recipe.getInputs(),
                     recipe.getFluidInputs());
             RecipeMaps.MIXER_RECIPES.removeRecipe(recipe);
         }
+
+        // Use the recipe made from the material's components as the template, if there are multiple
+        var components = ((AccessibleMaterial) input).getOriginalComponents();
+        for (var recipe : recipes) {
+            if (matchesComponents(recipe, components)) return recipe;
+        }
         return recipes.get(0);
     }
 
+    /**
+     * Selects the decomposition recipe of a material from its indexed recipes: the one taking a single dust of the
+     * material, or if the material has no dust, a single fluid of the material.
+     * <p>
+     * If multiple recipes take that input, the map's lookup is used to choose between them, as it was before
+     * indexing.
+     */
+    @Nullable
+    private static Recipe selectDecompRecipe(CompositionRecipeType type, Material input, List<Recipe> recipes) {
+        if (recipes.isEmpty()) return null;
+
+        ItemStack itemInput = ItemStack.EMPTY;
+        FluidStack fluidInput = null;
+        if (input.hasProperty(PropertyKey.DUST))
+            itemInput = OreDictUnifier.get(OrePrefix.dust, input);
+        else
+            fluidInput = input.getFluid(1);
+
+        List<Recipe> matching = new ObjectArrayList<>();
+        for (var recipe : recipes) {
+            if (!itemInput.isEmpty()) {
+                if (recipe.getInputs().size() == 1 && recipe.getFluidInputs().isEmpty() &&
+                        recipe.getInputs().get(0).acceptsStack(itemInput))
+                    matching.add(recipe);
+            } else if (fluidInput != null) {
+                if (recipe.getInputs().isEmpty() && recipe.getFluidInputs().size() == 1 &&
+                        recipe.getFluidInputs().get(0).acceptsFluid(fluidInput))
+                    matching.add(recipe);
+            }
+        }
+
+        if (matching.size() <= 1) return matching.isEmpty() ? null : matching.get(0);
+        return type.map.find(itemInput.isEmpty() ? Collections.emptyList() : Collections.singletonList(itemInput),
+                fluidInput == null ? Collections.emptyList() : Collections.singletonList(fluidInput),
+                matching::contains);
+    }
+
+    /**
+     * Whether every consumed input of a recipe is a dust or fluid of one of the components.
+     */
+    private static boolean matchesComponents(Recipe recipe, List<MaterialStack> components) {
+        var itemInputs = getItemInputsFromComponents(components);
+        var fluidInputs = getFluidInputsFromComponents(components);
+        for (var input : recipe.getInputs()) {
+            if (input.isNonConsumable()) continue;
+            if (itemInputs.stream().noneMatch((component) -> input.acceptsStack(component.getInputStacks()[0])))
+                return false;
+        }
+        for (var input : recipe.getFluidInputs()) {
+            if (fluidInputs.stream().noneMatch((component) -> input.acceptsFluid(component.getInputFluidStack())))
+                return false;
+        }
+        return true;
+    }
+
     private static int getCircuit(List<GTRecipeInput> inputs) {
         for (var input : inputs) {
             if (!input.isNonConsumable()) continue;
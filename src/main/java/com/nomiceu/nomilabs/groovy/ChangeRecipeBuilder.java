@@ -20,7 +20,16 @@ import gregtech.api.recipes.chance.output.impl.ChancedItemOutput;
 import gregtech.api.recipes.ingredients.GTRecipeInput;
 import gregtech.api.recipes.ingredients.IntCircuitIngredient;
 import gregtech.api.recipes.recipeproperties.RecipeProperty;
-
+import gregtech.api.util.ValidationResult;
+
+/**
+ * Builder for changing a recipe.
+ * <p>
+ * Copy on write: each list (inputs, fluid inputs, outputs, fluid outputs, chanced outputs and chanced fluid outputs)
+ * is only deep copied from the original recipe when it is changed. Unchanged lists are shared with the new recipe
+ * (added to the builder as is, just before building, or before the builder is exposed), so changing only EUt or
+ * duration copies no entries. Shared entries are never modified, by either recipe.
+ */
 @SuppressWarnings({ "unused", "UnusedReturnValue" })
 public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
@@ -28,31 +37,19 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
     private final RecipeMap<R> originalRecipeMap;
     private final R builder;
 
+    /* Whether each list is already in the builder (changed, or materialized) */
+    private boolean hasInputs = false;
+    private boolean hasFluidInputs = false;
+    private boolean hasOutputs = false;
+    private boolean hasFluidOutputs = false;
+    private boolean hasChancedOutputs = false;
+    private boolean hasChancedFluidOutputs = false;
+
     public ChangeRecipeBuilder(Recipe originalRecipe, RecipeMap<R> map) {
         this.originalRecipe = originalRecipe;
         this.originalRecipeMap = map;
         this.builder = map.recipeBuilder();
 
-        // Make sure to Copy EVERYTHING
-        for (var input : originalRecipe.getInputs()) {
-            builder.input(copy(input));
-        }
-        for (var input : originalRecipe.getFluidInputs()) {
-            builder.fluidInputs(copy(input));
-        }
-        for (var output : originalRecipe.getOutputs()) {
-            builder.outputs(output.copy());
-        }
-        for (var output : originalRecipe.getFluidOutputs()) {
-            builder.fluidOutputs(output.copy());
-        }
-        for (var output : originalRecipe.getChancedOutputs().getChancedEntries()) {
-            builder.chancedOutput(output.getIngredient().copy(), output.getChance(), output.getChanceBoost());
-        }
-        for (var output : originalRecipe.getChancedFluidOutputs().getChancedEntries()) {
-            builder.chancedFluidOutput(output.getIngredient().copy(), output.getChance(), output.getChanceBoost());
-        }
-
         if (originalRecipe.isHidden())
             builder.hidden();
 
@@ -62,11 +59,45 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
         builder.EUt(originalRecipe.getEUt());
     }
 
+    /**
+     * Adds all unchanged lists to the builder.
+     */
+    private void materialize() {
+        materializeInputs();
+        if (!hasFluidInputs) {
+            builder.fluidInputs(originalRecipe.getFluidInputs());
+            hasFluidInputs = true;
+        }
+        if (!hasOutputs) {
+            builder.outputs(originalRecipe.getOutputs());
+            hasOutputs = true;
+        }
+        if (!hasFluidOutputs) {
+            builder.fluidOutputs(originalRecipe.getFluidOutputs());
+            hasFluidOutputs = true;
+        }
+        if (!hasChancedOutputs) {
+            builder.chancedOutputs(originalRecipe.getChancedOutputs().getChancedEntries());
+            hasChancedOutputs = true;
+        }
+        if (!hasChancedFluidOutputs) {
+            builder.chancedFluidOutputs(originalRecipe.getChancedFluidOutputs().getChancedEntries());
+            hasChancedFluidOutputs = true;
+        }
+    }
+
+    private void materializeInputs() {
+        if (hasInputs) return;
+        builder.inputIngredients(originalRecipe.getInputs());
+        hasInputs = true;
+    }
+
     public ChangeRecipeBuilder<R> copyOriginal() {
         return new ChangeRecipeBuilder<>(originalRecipe, originalRecipeMap);
     }
 
     public ChangeRecipeBuilder<R> builder(Consumer<R> builderChanger) {
+        materialize();
         builderChanger.accept(builder);
         return this;
     }
@@ -85,6 +116,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
     }
 
     public ChangeRecipeBuilder<R> clearCircuitMeta() {
+        materializeInputs();
         getCircuitMeta(builder.getInputs(), true);
         return this;
     }
@@ -112,6 +144,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
     public ChangeRecipeBuilder<R> changeInputs(Consumer<List<GTRecipeInput>> itemChanger) {
         builder.clearInputs();
+        hasInputs = true;
 
         var newInputs = originalRecipe.getInputs()
                 .stream().map(ChangeRecipeBuilder::copy).collect(Collectors.toList());
@@ -122,6 +155,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
     public ChangeRecipeBuilder<R> changeEachInput(Function<GTRecipeInput, GTRecipeInput> itemChanger) {
         builder.clearInputs();
+        hasInputs = true;
         for (var origInput : originalRecipe.getInputs()) {
             var newInput = itemChanger.apply(copy(origInput));
 
@@ -133,6 +167,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
     public ChangeRecipeBuilder<R> changeFluidInputs(Consumer<List<GTRecipeInput>> fluidChanger) {
         builder.clearFluidInputs();
+        hasFluidInputs = true;
 
         var newInputs = originalRecipe.getFluidInputs()
                 .stream().map(ChangeRecipeBuilder::copy).collect(Collectors.toList());
@@ -143,6 +178,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
     public ChangeRecipeBuilder<R> changeEachFluidInput(Function<GTRecipeInput, GTRecipeInput> fluidChanger) {
         builder.clearFluidInputs();
+        hasFluidInputs = true;
         for (var origInput : originalRecipe.getFluidInputs()) {
             var newInput = fluidChanger.apply(copy(origInput));
 
@@ -154,6 +190,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
     public ChangeRecipeBuilder<R> changeOutputs(Consumer<List<ItemStack>> itemChanger) {
         builder.clearOutputs();
+        hasOutputs = true;
 
         var newOutputs = originalRecipe.getOutputs()
                 .stream().map(ItemStack::copy).collect(Collectors.toList());
@@ -164,6 +201,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
     public ChangeRecipeBuilder<R> changeEachOutput(Function<ItemStack, ItemStack> itemChanger) {
         builder.clearOutputs();
+        hasOutputs = true;
         for (var origOutput : originalRecipe.getOutputs()) {
             var newOutput = itemChanger.apply(origOutput.copy());
 
@@ -175,6 +213,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
     public ChangeRecipeBuilder<R> changeFluidOutputs(Consumer<List<FluidStack>> fluidChanger) {
         builder.clearFluidOutputs();
+        hasFluidOutputs = true;
 
         var newOutputs = originalRecipe.getFluidOutputs()
                 .stream().map(FluidStack::copy).collect(Collectors.toList());
@@ -185,6 +224,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
     public ChangeRecipeBuilder<R> changeEachFluidOutput(Function<FluidStack, FluidStack> fluidChanger) {
         builder.clearFluidOutputs();
+        hasFluidOutputs = true;
         for (var origOutput : originalRecipe.getFluidOutputs()) {
             var newOutput = fluidChanger.apply(origOutput.copy());
 
@@ -196,6 +236,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
     public ChangeRecipeBuilder<R> changeChancedOutputs(Consumer<List<ChancedItemOutput>> itemChanger) {
         builder.clearChancedOutput();
+        hasChancedOutputs = true;
 
         var newOutputs = originalRecipe.getChancedOutputs().getChancedEntries()
                 .stream().map(ChancedItemOutput::copy).collect(Collectors.toList());
@@ -206,6 +247,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
     public ChangeRecipeBuilder<R> changeEachChancedOutput(Function<ChancedItemOutput, ChancedItemOutput> itemChanger) {
         builder.clearChancedOutput();
+        hasChancedOutputs = true;
         for (var origOutput : originalRecipe.getChancedOutputs().getChancedEntries()) {
             var newOutput = itemChanger.apply(origOutput);
 
@@ -218,6 +260,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
     public ChangeRecipeBuilder<R> changeChancedFluidOutputs(Consumer<List<ChancedFluidOutput>> fluidChanger) {
         builder.clearChancedFluidOutputs();
+        hasChancedFluidOutputs = true;
 
         var newOutputs = originalRecipe.getChancedFluidOutputs().getChancedEntries()
                 .stream().map(ChancedFluidOutput::copy).collect(Collectors.toList());
@@ -228,6 +271,7 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
 
     public ChangeRecipeBuilder<R> changeEachChancedFluidOutput(Function<ChancedFluidOutput, ChancedFluidOutput> fluidChanger) {
         builder.clearChancedFluidOutputs();
+        hasChancedFluidOutputs = true;
         for (var origOutput : originalRecipe.getChancedFluidOutputs().getChancedEntries()) {
             var newOutput = fluidChanger.apply(origOutput);
 
@@ -262,6 +306,17 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
         return this;
     }
 
+    /**
+     * Copies every property of the original recipe. Used for bulk mutations, where the properties of each recipe are
+     * not known beforehand.
+     */
+    public ChangeRecipeBuilder<R> copyAllProperties() {
+        for (var entry : originalRecipe.getRecipePropertyStorage().getRecipeProperties()) {
+            builder.applyProperty(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
     /**
      * It is important that you, somehow, make a copy of the input property, and not modify the property itself!<br>
      * Otherwise, reloading may not work correctly, and can cause modifications to be applied on top of each other!
@@ -277,7 +332,20 @@ public class ChangeRecipeBuilder<R extends RecipeBuilder<R>> {
         return this;
     }
 
+    public Recipe getOriginalRecipe() {
+        return originalRecipe;
+    }
+
+    /**
+     * Builds the changed recipe, without registering it.
+     */
+    public ValidationResult<Recipe> build() {
+        materialize();
+        return builder.build();
+    }
+
     public void buildAndRegister() {
+        materialize();
         builder.buildAndRegister();
     }
 
@@ -5,6 +5,7 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -408,6 +409,18 @@ public class GroovyHelpers {
 
             return new CompositionBuilder(mat.material);
         }
+
+        /**
+         * Changes the components and chemical formulas of many materials at once. Like the Composition Builder, the
+         * changes are applied after script load (components are set in one pass, then decomposition types are
+         * recalculated once per material), and are undone on reload.
+         */
+        public static void changeChemicalFormulas(Map<Material, List<IIngredient>> components) {
+            components.forEach((material, ingredients) -> new CompositionBuilder(material)
+                    .setComponents(ingredients)
+                    .changeChemicalFormula()
+                    .change());
+        }
     }
 
     public static class GTRecipeHelpers {
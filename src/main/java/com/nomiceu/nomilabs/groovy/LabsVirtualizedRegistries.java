@@ -2,7 +2,6 @@ package com.nomiceu.nomilabs.groovy;
 
 import static com.nomiceu.nomilabs.groovy.CompositionBuilder.CompositionSpecification;
 import static com.nomiceu.nomilabs.groovy.KeyBindingHelper.KeybindOverrideSpecification;
-import static com.nomiceu.nomilabs.util.LabsGroovyHelper.LABS_GROOVY_RUNNING;
 
 import java.util.*;
 
@@ -14,8 +13,10 @@ import org.jetbrains.annotations.Nullable;
 
 import com.cleanroommc.groovyscript.registry.AbstractReloadableStorage;
 import com.cleanroommc.groovyscript.registry.VirtualizedRegistry;
+import com.nomiceu.nomilabs.gregtech.mixinhelper.RecyclingStackInterner;
 import com.nomiceu.nomilabs.mixin.gregtech.OreDictUnifierAccessor;
 import com.nomiceu.nomilabs.util.ItemMeta;
+import com.nomiceu.nomilabs.util.LabsGroovyHelper;
 
 import gregtech.api.recipes.ingredients.nbtmatch.NBTCondition;
 import gregtech.api.recipes.ingredients.nbtmatch.NBTMatcher;
@@ -37,14 +38,14 @@ public class LabsVirtualizedRegistries {
 
         @Override
         public void onReload() {
-            restoreFromBackup().forEach(ChangeComposition::restore);
+            ChangeComposition.restore(restoreFromBackup());
         }
 
         @Override
         public void afterScriptLoad() {
-            LABS_GROOVY_RUNNING = true;
-            ChangeComposition.reloadCompositionRecipes();
-            LABS_GROOVY_RUNNING = false;
+            try (var ignored = LabsGroovyHelper.labsGroovyScope()) {
+                ChangeComposition.reloadCompositionRecipes();
+            }
             needReloading.clear();
         }
 
@@ -80,17 +81,16 @@ public class LabsVirtualizedRegistries {
                 needReloading.put(spec.getItemMeta(), spec.getInfo());
             });
             addedNbtConditions.clear();
+            RecyclingStackInterner.clear();
         }
 
         @Override
         public void afterScriptLoad() {
             // Load actual map into accessible one
             nbtConditions = addedNbtConditions;
-            LABS_GROOVY_RUNNING = true;
-
-            RecyclingHelper.reloadRecyclingRecipes();
-
-            LABS_GROOVY_RUNNING = false;
+            try (var ignored = LabsGroovyHelper.labsGroovyScope()) {
+                RecyclingHelper.reloadRecyclingRecipes();
+            }
             needReloading.clear();
             nbtConditions = null;
         }
@@ -2,6 +2,7 @@ package com.nomiceu.nomilabs.groovy;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import net.minecraft.item.ItemStack;
@@ -12,6 +13,7 @@ import net.minecraftforge.fluids.FluidStack;
 
 import com.cleanroommc.groovyscript.api.GroovyBlacklist;
 import com.google.common.collect.ImmutableList;
+import com.nomiceu.nomilabs.gregtech.mixinhelper.AccessibleMaterial;
 import com.nomiceu.nomilabs.mixin.gregtech.FluidStorageKeyAccessor;
 import com.nomiceu.nomilabs.mixin.gregtech.MetaItemsMixin;
 
@@ -22,6 +24,7 @@ import gregtech.api.unification.OreDictUnifier;
 import gregtech.api.unification.material.Material;
 import gregtech.api.unification.ore.OrePrefix;
 import gregtech.api.unification.ore.StoneType;
+import gregtech.api.unification.stack.MaterialStack;
 import gregtech.api.unification.stack.UnificationEntry;
 import gregtech.common.blocks.MaterialItemBlock;
 import gregtech.common.blocks.OreItemBlock;
@@ -100,4 +103,19 @@ public class MaterialHelper {
             if (fluid != null) action.accept(fluid);
         });
     }
+
+    /**
+     * Sets the components of many materials at once.
+     * <p>
+     * All components (and formulas, if specified) are set first, then the decomposition types are recalculated in
+     * a single pass afterwards, instead of once per change.
+     */
+    public static void setComponents(Map<Material, ImmutableList<MaterialStack>> components, boolean changeFormula) {
+        for (var entry : components.entrySet()) {
+            ((AccessibleMaterial) entry.getKey()).setComponentsWithoutDecomp(entry.getValue(), changeFormula);
+        }
+        for (var material : components.keySet()) {
+            ((AccessibleMaterial) material).recalculateDecompositionType();
+        }
+    }
 }
@@ -2,17 +2,24 @@ package com.nomiceu.nomilabs.groovy;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fml.common.Optional;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.cleanroommc.groovyscript.api.GroovyLog;
 import com.nomiceu.nomilabs.LabsValues;
+import com.nomiceu.nomilabs.NomiLabs;
 import com.nomiceu.nomilabs.integration.nuclearcraft.AccessibleCoolerType;
 
+import it.unimi.dsi.fastutil.ints.IntLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import nc.config.NCConfig;
 import nc.enumm.MetaEnums;
+import nc.recipe.BasicRecipe;
 import nc.recipe.NCRecipes;
 import nc.recipe.other.ActiveCoolerRecipes;
 
@@ -26,6 +33,20 @@ public class NCActiveCoolerHelper {
      */
     private static final List<String> fluidNamesFromIDs = new ArrayList<>();
 
+    /**
+     * Fluid Name -> Active Cooler Recipe. Built on first use (and if the handler is replaced), then kept up to date by
+     * the changes below.
+     */
+    private static final Map<String, BasicRecipe> recipesByFluid = new Object2ObjectOpenHashMap<>();
+
+    @Nullable
+    private static ActiveCoolerRecipes recipeTableHandler = null;
+
+    /**
+     * IDs of Cooler Types changed by scripts since the last reload. Only these are reverted on reload.
+     */
+    private static final IntSet changedIDs = new IntLinkedOpenHashSet();
+
     public static List<String> getFluidNamesFromIDs() {
         if (!loadedFluidNames) reloadFluidNames();
 
@@ -46,10 +67,23 @@ public class NCActiveCoolerHelper {
         // Usually Active Cooler is null on Pre-Init or Init Load
         if (NCRecipes.active_cooler == null) return;
 
-        reloadFluidNames();
+        if (changedIDs.isEmpty()) return;
+        var time = System.currentTimeMillis();
+        var types = MetaEnums.CoolerType.values();
 
-        NCRecipes.active_cooler.removeAllRecipes();
-        NCRecipes.active_cooler.addRecipes();
+        // Remove all changed recipes first, in case a script moved a fluid from one cooler to another
+        for (int id : changedIDs) {
+            removeCoolerRecipe(fluidNamesFromIDs.get(id - 1));
+        }
+        for (int id : changedIDs) {
+            var original = ((AccessibleCoolerType) (Object) types[id]).getOriginalFluidName();
+            fluidNamesFromIDs.set(id - 1, original);
+            addCoolerRecipe(original, id);
+        }
+
+        NomiLabs.LOGGER.info("Reverting {} Active Cooler Recipes took {}ms", changedIDs.size(),
+                System.currentTimeMillis() - time);
+        changedIDs.clear();
     }
 
     public static void afterScriptLoad() {
@@ -66,28 +100,54 @@ public class NCActiveCoolerHelper {
             return;
         }
 
-        boolean removed = false;
-        for (var recipe : NCRecipes.active_cooler.getRecipeList()) {
-            if (recipe.fluidIngredients().size() == 1) {
-                var ing = recipe.fluidIngredients().get(0);
-                if (ing.getInputStackList().size() == 1 &&
-                        Objects.equals(ing.getInputStackList().get(0).getFluid().getName(), type.getFluidName())) {
-                    NCRecipes.active_cooler.removeRecipe(recipe);
-                    removed = true;
-                    break;
-                }
-            }
-        }
-        if (!removed) {
+        var fluidNames = getFluidNamesFromIDs();
+        if (!removeCoolerRecipe(type.getFluidName())) {
             GroovyLog.get().error("Could not find ActiveCooler recipe for " + type.getFluidName() + "!");
         }
 
+        var newFluid = newStack.getFluid().getName();
+        addCoolerRecipe(newFluid, type.getID());
+        fluidNames.set(type.getID() - 1, newFluid);
+        changedIDs.add(type.getID());
+    }
+
+    private static boolean removeCoolerRecipe(String fluidName) {
+        var recipe = getRecipeTable().remove(fluidName);
+        if (recipe == null) return false;
+        NCRecipes.active_cooler.removeRecipe(recipe);
+        return true;
+    }
+
+    private static void addCoolerRecipe(String fluidName, int id) {
         NCRecipes.active_cooler.addRecipe(
-                ActiveCoolerRecipes.fluidStack(newStack.getFluid().getName(), NCConfig.active_cooler_max_rate),
-                Math.round(NCConfig.fission_active_cooling_rate[type.getID() - 1] * NCConfig.active_cooler_max_rate /
-                        20.0),
-                Math.round(NCConfig.fusion_active_cooling_rate[type.getID() - 1] * NCConfig.active_cooler_max_rate /
-                        20.0));
-        getFluidNamesFromIDs().set(type.getID() - 1, newStack.getFluid().getName());
+                ActiveCoolerRecipes.fluidStack(fluidName, NCConfig.active_cooler_max_rate),
+                Math.round(NCConfig.fission_active_cooling_rate[id - 1] * NCConfig.active_cooler_max_rate / 20.0),
+                Math.round(NCConfig.fusion_active_cooling_rate[id - 1] * NCConfig.active_cooler_max_rate / 20.0));
+
+        // Newly added recipe is at the end of the list
+        var recipes = NCRecipes.active_cooler.getRecipeList();
+        if (recipes.isEmpty()) return;
+        var recipe = recipes.get(recipes.size() - 1);
+        if (fluidName.equals(getFluidName(recipe))) getRecipeTable().put(fluidName, recipe);
+    }
+
+    private static Map<String, BasicRecipe> getRecipeTable() {
+        if (recipeTableHandler == NCRecipes.active_cooler) return recipesByFluid;
+
+        recipesByFluid.clear();
+        for (var recipe : NCRecipes.active_cooler.getRecipeList()) {
+            var fluidName = getFluidName(recipe);
+            if (fluidName != null) recipesByFluid.putIfAbsent(fluidName, recipe);
+        }
+        recipeTableHandler = NCRecipes.active_cooler;
+        return recipesByFluid;
+    }
+
+    @Nullable
+    private static String getFluidName(BasicRecipe recipe) {
+        if (recipe.fluidIngredients().size() != 1) return null;
+        var stacks = recipe.fluidIngredients().get(0).getInputStackList();
+        if (stacks.size() != 1) return null;
+        return stacks.get(0).getFluid().getName();
     }
 }
@@ -0,0 +1,93 @@
+package com.nomiceu.nomilabs.groovy;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.cleanroommc.groovyscript.api.GroovyLog;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * A mutation applied to every matching recipe of a recipe map, via
+ * `mods.gregtech.&lt;RECIPE_MAP_NAME&gt;.mutateRecipes(...)`.
+ * <p>
+ * Only the parts of each recipe that are mutated are copied (see {@link ChangeRecipeBuilder}). Unlike changing
+ * recipes one by one, all recipe properties (cleanroom, temperature, etc.) are kept.
+ */
+@SuppressWarnings({ "unused", "UnusedReturnValue" })
+public class RecipeMutation {
+
+    private Function<Integer, Integer> eut = null;
+    private Function<Integer, Integer> duration = null;
+    private double outputScale = 1;
+    private double fluidOutputScale = 1;
+    private final List<Consumer<ChangeRecipeBuilder<?>>> changes = new ObjectArrayList<>();
+
+    public RecipeMutation changeEUt(Function<Integer, Integer> eut) {
+        this.eut = eut;
+        return this;
+    }
+
+    public RecipeMutation changeDuration(Function<Integer, Integer> duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * Scales the amount of every item output. Amounts are rounded, and kept to at least 1.
+     */
+    public RecipeMutation scaleOutputs(double scale) {
+        if (scale <= 0) {
+            GroovyLog.get().error("Output Scale must be greater than 0!");
+            return this;
+        }
+        this.outputScale = scale;
+        return this;
+    }
+
+    /**
+     * Scales the amount of every fluid output. Amounts are rounded, and kept to at least 1.
+     */
+    public RecipeMutation scaleFluidOutputs(double scale) {
+        if (scale <= 0) {
+            GroovyLog.get().error("Fluid Output Scale must be greater than 0!");
+            return this;
+        }
+        this.fluidOutputScale = scale;
+        return this;
+    }
+
+    /**
+     * Any other change, applied to each recipe's Change Recipe Builder.
+     */
+    public RecipeMutation change(Consumer<ChangeRecipeBuilder<?>> change) {
+        changes.add(change);
+        return this;
+    }
+
+    public void apply(ChangeRecipeBuilder<?> builder) {
+        builder.copyAllProperties();
+        if (eut != null) builder.changeEUt(eut);
+        if (duration != null) builder.changeDuration(duration);
+        if (outputScale != 1) {
+            builder.changeEachOutput((stack) -> {
+                stack.setCount(scale(stack.getCount(), outputScale));
+                return stack;
+            });
+        }
+        if (fluidOutputScale != 1) {
+            builder.changeEachFluidOutput((stack) -> {
+                stack.amount = scale(stack.amount, fluidOutputScale);
+                return stack;
+            });
+        }
+        for (var change : changes) {
+            change.accept(builder);
+        }
+    }
+
+    private static int scale(int amount, double scale) {
+        return (int) Math.max(1, Math.round(amount * scale));
+    }
+}
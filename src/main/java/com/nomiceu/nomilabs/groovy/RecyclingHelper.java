@@ -21,12 +21,12 @@ import com.cleanroommc.groovyscript.api.GroovyBlacklist;
 import com.cleanroommc.groovyscript.api.IIngredient;
 import com.cleanroommc.groovyscript.helper.ingredient.OreDictIngredient;
 import com.cleanroommc.groovyscript.registry.ReloadableRegistryManager;
-import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Multiset;
 import com.nomiceu.nomilabs.NomiLabs;
+import com.nomiceu.nomilabs.gregtech.mixinhelper.AccessibleRecipe;
 import com.nomiceu.nomilabs.gregtech.mixinhelper.AccessibleRecipeMap;
+import com.nomiceu.nomilabs.gregtech.mixinhelper.RecyclingStackInterner;
 import com.nomiceu.nomilabs.util.ItemTagMeta;
 import com.nomiceu.nomilabs.util.LabsNames;
 
@@ -56,34 +56,46 @@ public class RecyclingHelper {
         if (LabsVirtualizedRegistries.REPLACE_RECYCLING_MANAGER.needReloading.isEmpty()) return;
         reloadingRecycling = true;
         var time = System.currentTimeMillis();
-        for (var modified : LabsVirtualizedRegistries.REPLACE_RECYCLING_MANAGER.needReloading.entrySet()) {
-            var itemMeta = modified.getKey();
-            var stack = itemMeta.toStack();
-            NomiLabs.LOGGER.debug("Removing Recycling Recipes for {} @ {}...", itemMeta.getItem().getRegistryName(),
-                    itemMeta.getMeta());
-            removeRecyclingRecipe(RecipeMaps.ARC_FURNACE_RECIPES, RecipeCategories.ARC_FURNACE_RECYCLING, stack,
-                    Materials.Oxygen.getFluid());
-            removeRecyclingRecipe(RecipeMaps.MACERATOR_RECIPES, RecipeCategories.MACERATOR_RECYCLING, stack, null);
-            removeRecyclingRecipe(RecipeMaps.EXTRACTOR_RECIPES, RecipeCategories.EXTRACTOR_RECYCLING, stack, null);
-            if (modified.getValue() == null) continue;
-            NomiLabs.LOGGER.debug("Adding Recycling Recipes for {} @ {}...", itemMeta.getItem().getRegistryName(),
-                    itemMeta.getMeta());
-            RecyclingRecipes.registerRecyclingRecipes(stack, modified.getValue().getMaterials(), false, null);
+        RecyclingReloadProfiler.start();
+        try {
+            for (var modified : LabsVirtualizedRegistries.REPLACE_RECYCLING_MANAGER.needReloading.entrySet()) {
+                var itemMeta = modified.getKey();
+                var stack = itemMeta.toStack();
+                RecyclingReloadProfiler.beginItem(itemMeta);
+                NomiLabs.LOGGER.debug("Removing Recycling Recipes for {} @ {}...", itemMeta.getItem().getRegistryName(),
+                        itemMeta.getMeta());
+                removeRecyclingRecipe(RecipeMaps.ARC_FURNACE_RECIPES, RecipeCategories.ARC_FURNACE_RECYCLING, stack,
+                        Materials.Oxygen.getFluid());
+                removeRecyclingRecipe(RecipeMaps.MACERATOR_RECIPES, RecipeCategories.MACERATOR_RECYCLING, stack, null);
+                removeRecyclingRecipe(RecipeMaps.EXTRACTOR_RECIPES, RecipeCategories.EXTRACTOR_RECYCLING, stack, null);
+                if (modified.getValue() == null) continue;
+                NomiLabs.LOGGER.debug("Adding Recycling Recipes for {} @ {}...", itemMeta.getItem().getRegistryName(),
+                        itemMeta.getMeta());
+                var generationStart = System.nanoTime();
+                RecyclingRecipes.registerRecyclingRecipes(stack, modified.getValue().getMaterials(), false, null);
+                RecyclingReloadProfiler.addGeneration(System.nanoTime() - generationStart);
+            }
+            NomiLabs.LOGGER.info("Reloading Recycling Recipes took {}ms", System.currentTimeMillis() - time);
+        } finally {
+            RecyclingReloadProfiler.finish();
+            RecyclingStackInterner.clear();
+            reloadingRecycling = false;
         }
-        NomiLabs.LOGGER.info("Reloading Recycling Recipes took {}ms", System.currentTimeMillis() - time);
-        reloadingRecycling = false;
     }
 
     private static void removeRecyclingRecipe(RecipeMap<?> map, GTRecipeCategory category, ItemStack itemInput,
                                               Fluid fluidInput) {
+        var start = System.nanoTime();
         var recipe = map.find(Collections.singletonList(itemInput),
                 fluidInput == null ? Collections.emptyList() : Collections.singletonList(new FluidStack(fluidInput, 1)),
                 (recipe1) -> recipe1.getRecipeCategory().equals(category));
-        if (recipe == null) return;
-        NomiLabs.LOGGER.debug("Removing Recycling Recipe for {} @ {} in recipe map {} and recipe category {}.",
-                itemInput.getItem().getRegistryName(), itemInput.getMetadata(),
-                map.getUnlocalizedName(), category.getName());
-        map.removeRecipe(recipe);
+        if (recipe != null) {
+            NomiLabs.LOGGER.debug("Removing Recycling Recipe for {} @ {} in recipe map {} and recipe category {}.",
+                    itemInput.getItem().getRegistryName(), itemInput.getMetadata(),
+                    map.getUnlocalizedName(), category.getName());
+            map.removeRecipe(recipe);
+        }
+        RecyclingReloadProfiler.addRemoval(map, System.nanoTime() - start);
     }
 
     public static void replaceRecipeShaped(ResourceLocation name, ItemStack output, List<List<IIngredient>> inputs) {
@@ -182,19 +194,13 @@ public class RecyclingHelper {
         if (foundRecipes.size() > 1) {
             // Check if the found recipes have the same item input, as that means they are the same for the purposes of
             // recycling.
-            // This may take a while with a lot of recipes. Hopefully not required much if the users specify recipes
-            // correctly.
-            // Use Multiset: an efficient way to compare inputs where inputs can be duplicated.
-            Multiset<GTRecipeInput> inputs = HashMultiset.create();
-            inputs.addAll(foundRecipes.get(0).getInputs());
+            // Compare cached input fingerprints: a hash comparison, with inputs that can be duplicated.
+            var inputs = ((AccessibleRecipe) foundRecipes.get(0)).getInputFingerprint();
             boolean inputsAllEqual = true;
 
             // Skip Recipe with index 0, that is already the inputs from above
             for (int i = 1; i < foundRecipes.size(); i++) {
-                Multiset<GTRecipeInput> compare = HashMultiset.create();
-                compare.addAll(foundRecipes.get(i).getInputs());
-
-                if (!inputs.equals(compare)) {
+                if (!inputs.equals(((AccessibleRecipe) foundRecipes.get(i)).getInputFingerprint())) {
                     inputsAllEqual = false;
                     break;
                 }
@@ -0,0 +1,194 @@
+package com.nomiceu.nomilabs.groovy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.cleanroommc.groovyscript.api.GroovyBlacklist;
+import com.nomiceu.nomilabs.NomiLabs;
+import com.nomiceu.nomilabs.util.ItemMeta;
+
+import gregtech.api.recipes.RecipeMap;
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+
+/**
+ * Records a per-phase, per-item timing breakdown of {@link RecyclingHelper#reloadRecyclingRecipes()}.
+ * <p>
+ * Phases:
+ * <ul>
+ * <li>Removal: finding and removing the old recycling recipes, per recipe map.</li>
+ * <li>Composition: GT computing the recycling outputs from the item's material composition, and building the
+ * recipes.</li>
+ * <li>Registration: adding the built recipes to the recipe maps.</li>
+ * <li>Lookup Tree: updating the output lookup trees. This time is also part of Removal and Registration.</li>
+ * </ul>
+ * The last profile is kept, so it can be viewed via the recycling profile command.
+ */
+@GroovyBlacklist
+public class RecyclingReloadProfiler {
+
+    public static final int DEFAULT_SHOWN_ITEMS = 10;
+
+    @Nullable
+    private static Profile current = null;
+
+    @Nullable
+    private static Profile last = null;
+
+    public static void start() {
+        current = new Profile();
+    }
+
+    public static void finish() {
+        if (current == null) return;
+        current.totalNanos = System.nanoTime() - current.startNanos;
+        last = current;
+        current = null;
+
+        NomiLabs.LOGGER.info("Recycling Reload Profile:");
+        for (var line : last.getReport(DEFAULT_SHOWN_ITEMS)) {
+            NomiLabs.LOGGER.info(line);
+        }
+        if (NomiLabs.LOGGER.isDebugEnabled()) {
+            NomiLabs.LOGGER.debug("Full Recycling Reload Profile:");
+            for (var line : last.getReport(last.items.size())) {
+                NomiLabs.LOGGER.debug(line);
+            }
+        }
+    }
+
+    public static boolean isProfiling() {
+        return current != null;
+    }
+
+    @Nullable
+    public static Profile getLast() {
+        return last;
+    }
+
+    public static void beginItem(ItemMeta item) {
+        if (current == null) return;
+        current.currentItem = new ItemProfile(item);
+        current.items.add(current.currentItem);
+    }
+
+    public static void addRemoval(RecipeMap<?> map, long nanos) {
+        var item = getCurrentItem();
+        if (item == null) return;
+        item.removal.put(map, item.removal.getLong(map) + nanos);
+    }
+
+    /**
+     * Adds the time taken by GT to generate the recycling recipes of the current item. Registration time, recorded
+     * separately, is subtracted to get the composition time.
+     */
+    public static void addGeneration(long nanos) {
+        var item = getCurrentItem();
+        if (item == null) return;
+        item.composition += nanos - item.registration;
+    }
+
+    public static void addRegistration(long nanos) {
+        var item = getCurrentItem();
+        if (item == null) return;
+        item.registration += nanos;
+    }
+
+    public static void addLookupTree(long nanos) {
+        var item = getCurrentItem();
+        if (item == null) return;
+        item.lookupTree += nanos;
+    }
+
+    @Nullable
+    private static ItemProfile getCurrentItem() {
+        if (current == null) return null;
+        return current.currentItem;
+    }
+
+    private static String toMs(long nanos) {
+        return String.format("%.3fms", nanos / 1_000_000.0);
+    }
+
+    public static class Profile {
+
+        private final long startNanos = System.nanoTime();
+        private long totalNanos = 0;
+        private final List<ItemProfile> items = new ArrayList<>();
+        private ItemProfile currentItem = null;
+
+        /**
+         * Gets the report: totals per phase, followed by the items that took the longest.
+         */
+        @NotNull
+        public List<String> getReport(int shownItems) {
+            long composition = 0, registration = 0, lookupTree = 0;
+            Object2LongMap<RecipeMap<?>> removal = new Object2LongLinkedOpenHashMap<>();
+            for (var item : items) {
+                composition += item.composition;
+                registration += item.registration;
+                lookupTree += item.lookupTree;
+                for (var entry : item.removal.object2LongEntrySet()) {
+                    removal.put(entry.getKey(), removal.getLong(entry.getKey()) + entry.getLongValue());
+                }
+            }
+
+            List<String> lines = new ArrayList<>();
+            lines.add(String.format("Total: %s, for %s items", toMs(totalNanos), items.size()));
+            for (var entry : removal.object2LongEntrySet()) {
+                lines.add(String.format("- Removal (%s): %s", entry.getKey().getUnlocalizedName(),
+                        toMs(entry.getLongValue())));
+            }
+            lines.add(String.format("- Composition: %s", toMs(composition)));
+            lines.add(String.format("- Registration: %s", toMs(registration)));
+            lines.add(String.format("- Lookup Tree Updates (part of Removal & Registration): %s", toMs(lookupTree)));
+
+            if (shownItems <= 0 || items.isEmpty()) return lines;
+
+            lines.add(String.format("Slowest %s items:", Math.min(shownItems, items.size())));
+            items.stream()
+                    .sorted(Comparator.comparingLong(ItemProfile::getTotal).reversed())
+                    .limit(shownItems)
+                    .forEach((item) -> lines.add(item.toString()));
+            return lines;
+        }
+    }
+
+    public static class ItemProfile {
+
+        private final ItemMeta item;
+        private final Object2LongMap<RecipeMap<?>> removal = new Object2LongLinkedOpenHashMap<>();
+        private long composition = 0;
+        private long registration = 0;
+        private long lookupTree = 0;
+
+        private ItemProfile(ItemMeta item) {
+            this.item = item;
+        }
+
+        public long getTotal() {
+            long total = composition + registration;
+            for (var nanos : removal.values()) {
+                total += nanos;
+            }
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder removals = new StringBuilder();
+            for (Map.Entry<RecipeMap<?>, Long> entry : removal.entrySet()) {
+                if (removals.length() != 0) removals.append(", ");
+                removals.append(entry.getKey().getUnlocalizedName()).append(" ").append(toMs(entry.getValue()));
+            }
+            return String.format("- %s @ %s: %s (removal: [%s], composition: %s, registration: %s, lookup tree: %s)",
+                    item.getItem().getRegistryName(), item.getMeta(), toMs(getTotal()), removals,
+                    toMs(composition), toMs(registration), toMs(lookupTree));
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.nomiceu.nomilabs.groovy;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.world.World;
 
@@ -15,20 +18,28 @@ import com.cleanroommc.groovyscript.api.GroovyLog;
 import com.cleanroommc.groovyscript.api.IIngredient;
 import com.cleanroommc.groovyscript.compat.vanilla.ShapedCraftingRecipe;
 import com.cleanroommc.groovyscript.helper.ingredient.IngredientHelper;
+import com.nomiceu.nomilabs.recipe.IndexedCraftingRecipe;
+import com.nomiceu.nomilabs.recipe.LabsCraftingIndex;
 
 import groovy.lang.Closure;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 
 /**
  * A shaped conversion recipe where there must be only one input.
  */
 @SuppressWarnings("unused")
-public class ShapedConversionRecipe extends ShapedCraftingRecipe {
+public class ShapedConversionRecipe extends ShapedCraftingRecipe implements IndexedCraftingRecipe {
 
     private int recipeInputLocation;
     private int trueInputLocation;
 
     private Integer[] cache;
 
+    @Nullable
+    private Set<Item> keyItems = null;
+    private int keyItemsGeneration = -1;
+
     public ShapedConversionRecipe(ItemStack output, List<IIngredient> input, int width, int height) {
         this(output, input, width, height, false, null, null);
     }
@@ -67,12 +78,57 @@ public class ShapedConversionRecipe extends ShapedCraftingRecipe {
 
     @Override
     public boolean matches(@NotNull InventoryCrafting inv, @NotNull World worldIn) {
-        return matchesShaped(inv, recipeInputLocation, (stack) -> input.get(trueInputLocation).test(stack), cache,
-                (cache1) -> cache = cache1);
+        return matchesShaped(inv, recipeInputLocation, getCachedKeyItems(),
+                (stack) -> input.get(trueInputLocation).test(stack), cache, (cache1) -> cache = cache1);
+    }
+
+    @Nullable
+    private Set<Item> getCachedKeyItems() {
+        // Matching stacks may change on script reload (e.g. ore dicts)
+        int generation = LabsCraftingIndex.getGeneration();
+        if (keyItemsGeneration != generation) {
+            var items = getKeyItems();
+            keyItems = items == null ? null : new ReferenceOpenHashSet<>(items);
+            keyItemsGeneration = generation;
+        }
+        return keyItems;
+    }
+
+    @Override
+    @Nullable
+    public Collection<Item> getKeyItems() {
+        if (recipeInputLocation == -1) return null;
+        return getKeyItems(input.get(trueInputLocation).getMatchingStacks());
+    }
+
+    /**
+     * Gets the items of an input's matching stacks, or null if it has none (and so cannot be indexed).
+     */
+    @Nullable
+    public static Collection<Item> getKeyItems(ItemStack[] matchingStacks) {
+        if (matchingStacks == null || matchingStacks.length == 0) return null;
+        Collection<Item> items = new ObjectOpenHashSet<>();
+        for (var stack : matchingStacks) {
+            if (stack.isEmpty()) return null;
+            items.add(stack.getItem());
+        }
+        return items;
     }
 
     public static boolean matchesShaped(@NotNull InventoryCrafting inv, int inputLocation, Predicate<ItemStack> accepts,
                                         Integer[] cache, Consumer<Integer[]> setCache) {
+        return matchesShaped(inv, inputLocation, null, accepts, cache, setCache);
+    }
+
+    /**
+     * Matches a grid with only one non-empty slot, at the input location.
+     * <p>
+     * Grids are rejected by their non-empty slots, then by the item of the input (if key items are provided), before
+     * the ingredient is tested.
+     */
+    public static boolean matchesShaped(@NotNull InventoryCrafting inv, int inputLocation,
+                                        @Nullable Set<Item> keyItems, Predicate<ItemStack> accepts,
+                                        Integer[] cache, Consumer<Integer[]> setCache) {
         if (inv.getWidth() < 2 || inv.getWidth() > 3 || inv.getHeight() < 2 || inv.getHeight() > 3 ||
                 inv.getWidth() != inv.getHeight())
             return false;
@@ -80,20 +136,23 @@ public class ShapedConversionRecipe extends ShapedCraftingRecipe {
         var location = getLocationForDim(inv.getWidth(), inputLocation, cache, setCache);
         if (location == -1) return false;
 
-        int locationX = location % inv.getWidth();
-        int locationY = location / inv.getWidth();
+        int width = inv.getWidth();
+        int size = width * inv.getHeight();
 
         // Not using inv.stackList, as the stackList may not be correct for a given invCrafting.
-        for (int x = 0; x < inv.getWidth(); x++) {
-            for (int y = 0; y < inv.getHeight(); y++) {
-                if (x == locationX && y == locationY) {
-                    if (!accepts.test(inv.getStackInRowAndColumn(x, y))) return false;
-                    continue;
-                }
-                if (!inv.getStackInRowAndColumn(x, y).isEmpty()) return false;
-            }
+        ItemStack found = ItemStack.EMPTY;
+        int nonEmpty = 0;
+        for (int i = 0; i < size; i++) {
+            var stack = inv.getStackInRowAndColumn(i % width, i / width);
+            if (stack.isEmpty()) continue;
+            // Only one non-empty slot allowed, which must be the input location
+            if (++nonEmpty > 1 || i != location) return false;
+            found = stack;
         }
-        return true;
+        if (nonEmpty == 0) return false;
+
+        if (keyItems != null && !keyItems.contains(found.getItem())) return false;
+        return accepts.test(found);
     }
 
     private static int getLocationForDim(int dim, int inputLocation, Integer[] cache, Consumer<Integer[]> setCache) {
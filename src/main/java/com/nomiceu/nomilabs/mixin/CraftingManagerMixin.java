@@ -0,0 +1,36 @@
+package com.nomiceu.nomilabs.mixin;
+
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.crafting.CraftingManager;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.world.World;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.nomiceu.nomilabs.recipe.LabsCraftingIndex;
+
+/**
+ * Skips indexed recipes whose key items are not in the grid, whilst searching for a matching recipe, without calling
+ * their matches method. See {@link LabsCraftingIndex}.
+ */
+@Mixin(CraftingManager.class)
+public class CraftingManagerMixin {
+
+    @Inject(method = { "findMatchingRecipe", "getRemainingItems" }, at = @At("HEAD"))
+    private static void beginIndexedSearch(InventoryCrafting craftMatrix, World worldIn,
+                                           CallbackInfoReturnable<?> cir) {
+        LabsCraftingIndex.beginSearch();
+    }
+
+    @Redirect(method = { "findMatchingRecipe", "getRemainingItems" },
+              at = @At(value = "INVOKE",
+                       target = "Lnet/minecraft/item/crafting/IRecipe;matches(Lnet/minecraft/inventory/InventoryCrafting;Lnet/minecraft/world/World;)Z"),
+              require = 2)
+    private static boolean skipNonCandidates(IRecipe recipe, InventoryCrafting inv, World world) {
+        return LabsCraftingIndex.mayMatch(inv, recipe) && recipe.matches(inv, world);
+    }
+}
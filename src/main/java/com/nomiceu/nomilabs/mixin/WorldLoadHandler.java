@@ -41,4 +41,18 @@ public class WorldLoadHandler {
                 LabsConfig.modIntegration.enableEnderStorageIntegration)
             DataFixerHandler.processEnderStorageInfo(fixer, save);
     }
+
+    /**
+     * Registry Snapshot has been loaded by now, so block ids match the world, but no chunks have been loaded.
+     */
+    @Inject(method = "loadAndFix(Ljava/io/File;Lnet/minecraft/util/datafix/DataFixer;Lnet/minecraft/world/storage/SaveHandler;)Lnet/minecraft/world/storage/WorldInfo;",
+            at = @At("RETURN"),
+            remap = false)
+    private static void applyOfflineDataFixers(File file, DataFixer fixer, SaveHandler save,
+                                               CallbackInfoReturnable<WorldInfo> cir) {
+        if (!LabsSide.isServer() || save == null || cir.getReturnValue() == null)
+            return;
+
+        DataFixerHandler.processOfflineFixes(save);
+    }
 }
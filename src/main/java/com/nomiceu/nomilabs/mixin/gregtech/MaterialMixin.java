@@ -1,6 +1,7 @@
 package com.nomiceu.nomilabs.mixin.gregtech;
 
-import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.util.List;
 import java.util.Map;
 
@@ -50,6 +51,13 @@ public abstract class MaterialMixin implements AccessibleMaterial {
     @Unique
     private boolean calculatedDecomp = false;
 
+    /**
+     * Getter for the private typed `materialInfo` field. Resolved once, as mixin dies at shadowing fields with private
+     * types.
+     */
+    @Unique
+    private static final MethodHandle materialInfoGetter = createMaterialInfoGetter();
+
     @Unique
     private final Map<CompositionRecipeType, List<Recipe>> originalRecipes = new Object2ObjectOpenHashMap<>();
 
@@ -77,6 +85,13 @@ public abstract class MaterialMixin implements AccessibleMaterial {
     @Unique
     @Override
     public void setComponents(ImmutableList<MaterialStack> components, boolean changeFormula) {
+        setComponentsWithoutDecomp(components, changeFormula);
+        recalculateDecompositionType();
+    }
+
+    @Unique
+    @Override
+    public void setComponentsWithoutDecomp(ImmutableList<MaterialStack> components, boolean changeFormula) {
         setComponents(components);
         if (changeFormula) {
             // Recalculate Chemical Formula and Decomposition Type
@@ -86,18 +101,31 @@ public abstract class MaterialMixin implements AccessibleMaterial {
             chemicalFormula = calculateChemicalFormula();
         }
         if (chemicalFormula == null) chemicalFormula = "";
-        recalculateDecompositionType();
     }
 
     @Unique
     @Override
     public void setComponents(ImmutableList<MaterialStack> components) {
         if (originalComponents == null) originalComponents = getMaterialComponents();
+        Object materialInfo;
+        try {
+            materialInfo = materialInfoGetter.invoke(this);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to get Material Info of Material " + this + "!", e);
+        }
+        ((AccessibleMaterialInfo) materialInfo).setComponentList(components);
+    }
+
+    @Unique
+    private static MethodHandle createMaterialInfoGetter() {
         try {
             // Java reflection because mixin dies at shadowing fields with private types
-            Field f = Material.class.getDeclaredField("materialInfo");
-            ((AccessibleMaterialInfo) f.get(this)).setComponentList(components);
-        } catch (NoSuchFieldException | IllegalArgumentException | IllegalAccessException ignored) {}
+            var field = Material.class.getDeclaredField("materialInfo");
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to access Material Info of Materials!", e);
+        }
     }
 
     @Inject(method = "setFormula(Ljava/lang/String;Z)Lgregtech/api/unification/material/Material;", at = @At("RETURN"))
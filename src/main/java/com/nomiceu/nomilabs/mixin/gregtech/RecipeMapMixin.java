@@ -3,8 +3,8 @@ package com.nomiceu.nomilabs.mixin.gregtech;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.fluids.FluidStack;
@@ -12,6 +12,7 @@ import net.minecraftforge.fluids.FluidStack;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -19,21 +20,28 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import com.nomiceu.nomilabs.gregtech.mixinhelper.AccessibleRecipeMap;
+import com.nomiceu.nomilabs.gregtech.mixinhelper.CompositionRecipeIndex;
 import com.nomiceu.nomilabs.gregtech.mixinhelper.OutputBranch;
 import com.nomiceu.nomilabs.gregtech.mixinhelper.RecipeMapLogic;
+import com.nomiceu.nomilabs.gregtech.mixinhelper.RecipeMapQuery;
+import com.nomiceu.nomilabs.gregtech.mixinhelper.RecyclingStackInterner;
 import com.nomiceu.nomilabs.groovy.RecyclingHelper;
+import com.nomiceu.nomilabs.groovy.RecyclingReloadProfiler;
 
 import gregtech.api.recipes.Recipe;
 import gregtech.api.recipes.RecipeMap;
 import gregtech.api.recipes.chance.output.impl.ChancedFluidOutput;
 import gregtech.api.recipes.chance.output.impl.ChancedItemOutput;
 import gregtech.api.util.ValidationResult;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 
 /**
- * Allows for lookup with outputs.
+ * Allows for lookup with outputs, and keeps the Composition Recipe Index up to date.
  * <p>
  * Precaution to make sure only Recycling Recipes are added during recycling recipe reloading.<br>
  * This is because Arc Smelting sometimes generates non-recycling recipes.
+ * <p>
+ * Also times registration and lookup tree updates for the Recycling Reload Profiler, and interns recycling output tags.
  */
 @Mixin(value = RecipeMap.class, remap = false)
 public abstract class RecipeMapMixin implements AccessibleRecipeMap {
@@ -41,36 +49,88 @@ public abstract class RecipeMapMixin implements AccessibleRecipeMap {
     @Unique
     private final OutputBranch outputLookup = new OutputBranch();
 
+    @Unique
+    private long registrationStart = 0;
+
     @Inject(method = "addRecipe", at = @At("HEAD"), cancellable = true)
     public void addRecipeInRecycling(@NotNull ValidationResult<Recipe> validationResult,
                                      CallbackInfoReturnable<Boolean> cir) {
         if (!RecyclingHelper.isReloadingRecycling()) return;
         // If not in the map returns null, which will never equal the recipe category of the recipe, which is never null
         if (!Objects.equals(RecyclingHelper.recyclingMaps.get((RecipeMap<?>) (Object) this),
-                validationResult.getResult().getRecipeCategory()))
+                validationResult.getResult().getRecipeCategory())) {
             cir.setReturnValue(false);
+            return;
+        }
+        if (RecyclingReloadProfiler.isProfiling()) registrationStart = System.nanoTime();
+    }
+
+    @Inject(method = "addRecipe", at = @At("HEAD"))
+    public void internRecyclingOutputs(@NotNull ValidationResult<Recipe> validationResult,
+                                       CallbackInfoReturnable<Boolean> cir) {
+        if (validationResult.getResult() == null) return;
+        RecyclingStackInterner.internIfRecycling(validationResult.getResult());
+    }
+
+    @Inject(method = "addRecipe", at = @At("RETURN"))
+    public void addRecipeProfileRegistration(@NotNull ValidationResult<Recipe> validationResult,
+                                             CallbackInfoReturnable<Boolean> cir) {
+        if (!RecyclingReloadProfiler.isProfiling() || registrationStart == 0) return;
+        RecyclingReloadProfiler.addRegistration(System.nanoTime() - registrationStart);
+        registrationStart = 0;
     }
 
     @Inject(method = "removeAllRecipes", at = @At(value = "HEAD"))
     private void updateOutputLookupClear(CallbackInfo ci) {
         outputLookup.clear();
+        CompositionRecipeIndex.clear((RecipeMap<?>) (Object) this);
     }
 
     @Inject(method = "compileRecipe",
             at = @At(value = "INVOKE",
                      target = "Ljava/util/Map;compute(Ljava/lang/Object;Ljava/util/function/BiFunction;)Ljava/lang/Object;"))
     private void updateOutputLookupAdd(Recipe recipe, CallbackInfoReturnable<Boolean> cir) {
-        RecipeMapLogic.add(recipe, outputLookup);
+        if (RecyclingReloadProfiler.isProfiling()) {
+            var time = System.nanoTime();
+            RecipeMapLogic.add(recipe, outputLookup);
+            RecyclingReloadProfiler.addLookupTree(System.nanoTime() - time);
+        } else {
+            RecipeMapLogic.add(recipe, outputLookup);
+        }
+        CompositionRecipeIndex.add((RecipeMap<?>) (Object) this, recipe);
     }
 
     @Inject(method = "removeRecipe",
             at = @At(value = "INVOKE",
                      target = "Lgregtech/integration/groovy/GroovyScriptModule;isCurrentlyRunning()Z"))
     private void updateOutputLookupRemove(Recipe recipe, CallbackInfoReturnable<Boolean> cir) {
-        RecipeMapLogic.remove(recipe, outputLookup);
+        if (RecyclingReloadProfiler.isProfiling()) {
+            var time = System.nanoTime();
+            RecipeMapLogic.remove(recipe, outputLookup);
+            RecyclingReloadProfiler.addLookupTree(System.nanoTime() - time);
+        } else {
+            RecipeMapLogic.remove(recipe, outputLookup);
+        }
+        CompositionRecipeIndex.remove((RecipeMap<?>) (Object) this, recipe);
     }
 
+    @Shadow
+    public abstract boolean compileRecipe(Recipe recipe);
+
     /* Public Interface-Visible Methods */
+    @Unique
+    @Override
+    public int compileRecipes(@NotNull Collection<Recipe> recipes) {
+        // Compiles one by one, GT has no bulk insertion into the lookup tree
+        Set<Recipe> seen = new ReferenceOpenHashSet<>(recipes.size());
+        int compiled = 0;
+        for (var recipe : recipes) {
+            if (!seen.add(recipe)) continue;
+            if (compileRecipe(recipe)) compiled++;
+        }
+        return compiled;
+    }
+
     @Unique
     @Nullable
     @Override
@@ -97,17 +157,7 @@ public abstract class RecipeMapMixin implements AccessibleRecipeMap {
     public List<Recipe> findRecipeByOutput(long voltage, List<ItemStack> inputs, List<FluidStack> fluidInputs,
                                            List<ChancedItemOutput> chancedItems, List<ChancedFluidOutput> chancedFluids,
                                            boolean exactVoltage) {
-        List<ItemStack> items = inputs.stream().filter(s -> !s.isEmpty()).collect(Collectors.toList());
-        List<FluidStack> fluids = fluidInputs.stream().filter(f -> f != null && f.amount != 0)
-                .collect(Collectors.toList());
-
-        return findByOutput(items, fluids, chancedItems, chancedFluids, (recipe) -> {
-            if (exactVoltage && recipe.getEUt() != voltage) {
-                // if exact voltage is required, the recipe is not considered valid
-                return false;
-            }
-            // there is not enough voltage to consider the recipe valid
-            return recipe.getEUt() <= voltage;
-        });
+        return findByOutput(RecipeMapQuery.filterItems(inputs), RecipeMapQuery.filterFluids(fluidInputs),
+                chancedItems, chancedFluids, RecipeMapQuery.withVoltage(voltage, exactVoltage));
     }
 }
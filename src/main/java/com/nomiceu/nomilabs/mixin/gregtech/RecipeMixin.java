@@ -10,10 +10,13 @@ import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Mutable;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import com.nomiceu.nomilabs.gregtech.mixinhelper.AccessibleRecipe;
+import com.nomiceu.nomilabs.gregtech.mixinhelper.RecipeInputFingerprint;
 import com.nomiceu.nomilabs.util.LabsGroovyHelper;
 
 import gregtech.api.recipes.Recipe;
@@ -25,17 +28,25 @@ import gregtech.api.recipes.ingredients.GTRecipeInput;
 import gregtech.api.recipes.recipeproperties.IRecipePropertyStorage;
 
 /**
- * Makes recipes registered when {@link com.nomiceu.nomilabs.util.LabsGroovyHelper#LABS_GROOVY_RUNNING} is true groovy
- * recipes.
+ * Makes recipes created in a Labs-Groovy Scope (see
+ * {@link com.nomiceu.nomilabs.util.LabsGroovyHelper#isLabsGroovyRunning()}) groovy recipes.
+ * <p>
+ * Also caches each recipe's canonical input fingerprint.
  */
 @Mixin(value = Recipe.class, remap = false)
-public class RecipeMixin {
+public abstract class RecipeMixin implements AccessibleRecipe {
 
     @Shadow
     @Mutable
     @Final
     private boolean groovyRecipe;
 
+    @Unique
+    private RecipeInputFingerprint inputFingerprint = null;
+
+    @Shadow
+    public abstract List<GTRecipeInput> getInputs();
+
     @Inject(method = "<init>", at = @At("RETURN"))
     public void setLabsGroovyRecipe(@NotNull List<GTRecipeInput> inputs,
                                     List<ItemStack> outputs,
@@ -50,8 +61,15 @@ public class RecipeMixin {
                                     IRecipePropertyStorage recipePropertyStorage,
                                     @NotNull GTRecipeCategory recipeCategory,
                                     CallbackInfo ci) {
-        if (LabsGroovyHelper.LABS_GROOVY_RUNNING) {
+        if (LabsGroovyHelper.isLabsGroovyRunning()) {
             groovyRecipe = true;
         }
     }
+
+    @Unique
+    @Override
+    public RecipeInputFingerprint getInputFingerprint() {
+        if (inputFingerprint == null) inputFingerprint = new RecipeInputFingerprint(getInputs());
+        return inputFingerprint;
+    }
 }
@@ -1,17 +1,17 @@
 package com.nomiceu.nomilabs.mixin.gregtech;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.fluids.FluidStack;
 
-import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
@@ -19,9 +19,12 @@ import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 
 import com.cleanroommc.groovyscript.api.GroovyLog;
+import com.nomiceu.nomilabs.NomiLabs;
 import com.nomiceu.nomilabs.gregtech.mixinhelper.AccessibleRecipeMap;
+import com.nomiceu.nomilabs.gregtech.mixinhelper.RecipeMapQuery;
 import com.nomiceu.nomilabs.groovy.ChangeRecipeBuilder;
 import com.nomiceu.nomilabs.groovy.DummyChangeRecipeBuilder;
+import com.nomiceu.nomilabs.groovy.RecipeMutation;
 import com.nomiceu.nomilabs.util.LabsGroovyHelper;
 
 import gregtech.api.recipes.Recipe;
@@ -29,11 +32,16 @@ import gregtech.api.recipes.RecipeMap;
 import gregtech.api.recipes.category.GTRecipeCategory;
 import gregtech.api.recipes.chance.output.impl.ChancedFluidOutput;
 import gregtech.api.recipes.chance.output.impl.ChancedItemOutput;
+import gregtech.api.util.EnumValidationResult;
+import gregtech.api.util.ValidationResult;
 import gregtech.integration.groovy.VirtualizedRecipeMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 
 /**
  * Allows calling of new util functions (derivatives of find, remove, and change) via
  * `mods.gregtech.&lt;RECIPE_MAP_NAME&gt;` calls in Groovy.
+ * <p>
+ * Backed by {@link RecipeMapQuery}, and error descriptions are only formatted when a lookup actually fails.
  */
 @Mixin(value = VirtualizedRecipeMap.class, remap = false)
 @SuppressWarnings("unused")
@@ -52,50 +60,47 @@ public abstract class VirtualizedRecipeMapMixin {
     @Unique
     @Nullable
     public Recipe find(List<ItemStack> inputs, List<FluidStack> fluidInputs) {
-        return find((r) -> true, inputs, fluidInputs);
+        return find(RecipeMapQuery.ANY, inputs, fluidInputs);
     }
 
     @Unique
     @Nullable
     public Recipe find(GTRecipeCategory category, List<ItemStack> inputs, List<FluidStack> fluidInputs) {
-        return find((r) -> Objects.equals(category, r.getRecipeCategory()), inputs, fluidInputs);
+        return find(RecipeMapQuery.inCategory(category), inputs, fluidInputs);
     }
 
     @SuppressWarnings("DuplicatedCode")
     @Unique
     public Recipe find(Predicate<Recipe> condition, List<ItemStack> inputs, List<FluidStack> fluidInputs) {
-        inputs = validateList(inputs);
-        fluidInputs = validateList(fluidInputs);
-        List<ItemStack> items = inputs.stream().filter((s) -> !s.isEmpty()).collect(Collectors.toList());
-        List<FluidStack> fluids = fluidInputs.stream().filter((f) -> f != null && f.amount != 0)
-                .collect(Collectors.toList());
-        return recipeMap.find(items, fluids, condition);
+        return recipeMap.find(RecipeMapQuery.filterItems(inputs), RecipeMapQuery.filterFluids(fluidInputs),
+                condition);
     }
 
     @Unique
     public boolean removeByInput(List<ItemStack> items, List<FluidStack> fluids) {
-        return removeByInput((r) -> true, items, fluids, String.format("items: %s, fluids: %s", items, fluids));
+        return removeByInput(RecipeMapQuery.ANY, items, fluids,
+                () -> String.format("items: %s, fluids: %s", items, fluids));
     }
 
     @Unique
     public boolean removeByInput(GTRecipeCategory category, List<ItemStack> items, List<FluidStack> fluids) {
-        return removeByInput((r) -> Objects.equals(r.getRecipeCategory(), category), items, fluids,
-                String.format("category: %s, items %s, fluids %s", category, items, fluids));
+        return removeByInput(RecipeMapQuery.inCategory(category), items, fluids,
+                () -> String.format("category: %s, items %s, fluids %s", category, items, fluids));
     }
 
     @Unique
     public boolean removeByInput(Predicate<Recipe> condition, List<ItemStack> items, List<FluidStack> fluids) {
-        return removeByInput(condition, items, fluids, String.format("items: %s, fluids: %s", items, fluids));
+        return removeByInput(condition, items, fluids, () -> String.format("items: %s, fluids: %s", items, fluids));
     }
 
     @Unique
     private boolean removeByInput(Predicate<Recipe> condition, List<ItemStack> items, List<FluidStack> fluids,
-                                  String components) {
+                                  Supplier<String> components) {
         Recipe recipe = find(condition, items, fluids);
         if (recipe == null) {
             if (LabsGroovyHelper.isRunningGroovyScripts()) {
                 GroovyLog.msg("Error removing GregTech " + getName() + " recipe")
-                        .add("could not find recipe for: " + components)
+                        .add("could not find recipe for: " + components.get())
                         .error()
                         .post();
             }
@@ -136,23 +141,16 @@ public abstract class VirtualizedRecipeMapMixin {
     @SuppressWarnings("DuplicatedCode")
     public List<Recipe> findByOutput(long voltage, List<ItemStack> items, List<FluidStack> fluids,
                                      List<ChancedItemOutput> chancedItems, List<ChancedFluidOutput> chancedFluids) {
-        items = validateList(items);
-        fluids = validateList(fluids);
-        chancedItems = validateList(chancedItems);
-        chancedFluids = validateList(chancedFluids);
-
-        List<ItemStack> filteredItems = items.stream().filter((s) -> !s.isEmpty()).collect(Collectors.toList());
-        List<FluidStack> filteredFluids = fluids.stream().filter((f) -> f != null && f.amount != 0)
-                .collect(Collectors.toList());
-        return getAccessibleRecipeMap().findRecipeByOutput(voltage, filteredItems, filteredFluids, chancedItems,
-                chancedFluids);
+        return getAccessibleRecipeMap().findRecipeByOutput(voltage, RecipeMapQuery.filterItems(items),
+                RecipeMapQuery.filterFluids(fluids), RecipeMapQuery.validateList(chancedItems),
+                RecipeMapQuery.validateList(chancedFluids));
     }
 
     @Unique
     @Nullable
     public List<Recipe> findByOutput(List<ItemStack> items, List<FluidStack> fluids,
                                      List<ChancedItemOutput> chancedItems, List<ChancedFluidOutput> chancedFluids) {
-        return findByOutput((r) -> true, items, fluids, chancedItems, chancedFluids);
+        return findByOutput(RecipeMapQuery.ANY, items, fluids, chancedItems, chancedFluids);
     }
 
     @Unique
@@ -161,7 +159,7 @@ public abstract class VirtualizedRecipeMapMixin {
                                      List<FluidStack> fluids,
                                      List<ChancedItemOutput> chancedItems,
                                      List<ChancedFluidOutput> chancedFluids) {
-        return findByOutput((r) -> Objects.equals(r.getRecipeCategory(), category), items, fluids, chancedItems,
+        return findByOutput(RecipeMapQuery.inCategory(category), items, fluids, chancedItems,
                 chancedFluids);
     }
 
@@ -170,16 +168,9 @@ public abstract class VirtualizedRecipeMapMixin {
     @SuppressWarnings("DuplicatedCode")
     public List<Recipe> findByOutput(Predicate<Recipe> condition, List<ItemStack> items, List<FluidStack> fluids,
                                      List<ChancedItemOutput> chancedItems, List<ChancedFluidOutput> chancedFluids) {
-        items = validateList(items);
-        fluids = validateList(fluids);
-        chancedItems = validateList(chancedItems);
-        chancedFluids = validateList(chancedFluids);
-
-        List<ItemStack> filteredItems = items.stream().filter((s) -> !s.isEmpty()).collect(Collectors.toList());
-        List<FluidStack> filteredFluids = fluids.stream().filter((f) -> f != null && f.amount != 0)
-                .collect(Collectors.toList());
-        return getAccessibleRecipeMap().findByOutput(filteredItems, filteredFluids, chancedItems, chancedFluids,
-                condition);
+        return getAccessibleRecipeMap().findByOutput(RecipeMapQuery.filterItems(items),
+                RecipeMapQuery.filterFluids(fluids), RecipeMapQuery.validateList(chancedItems),
+                RecipeMapQuery.validateList(chancedFluids), condition);
     }
 
     @Unique
@@ -225,37 +216,37 @@ public abstract class VirtualizedRecipeMapMixin {
     @Unique
     public boolean removeByOutput(List<ItemStack> items, List<FluidStack> fluids,
                                   List<ChancedItemOutput> chancedItems, List<ChancedFluidOutput> chancedFluids) {
-        return removeByOutput((r) -> true, items, fluids, chancedItems, chancedFluids,
-                String.format("items: %s, fluids: %s, chanced items: %s, chanced fluids: %s", items, fluids,
+        return removeByOutput(RecipeMapQuery.ANY, items, fluids, chancedItems, chancedFluids,
+                () -> String.format("items: %s, fluids: %s, chanced items: %s, chanced fluids: %s", items, fluids,
                         chancedItems, chancedFluids));
     }
 
     @Unique
     public boolean removeByOutput(GTRecipeCategory category, List<ItemStack> items, List<FluidStack> fluids,
                                   List<ChancedItemOutput> chancedItems, List<ChancedFluidOutput> chancedFluids) {
-        return removeByOutput((r) -> Objects.equals(r.getRecipeCategory(), category), items, fluids,
+        return removeByOutput(RecipeMapQuery.inCategory(category), items, fluids,
                 chancedItems, chancedFluids,
-                String.format("category: %s, items: %s, fluids: %s, chanced items: %s, chanced fluids: %s", category,
-                        items, fluids, chancedItems, chancedFluids));
+                () -> String.format("category: %s, items: %s, fluids: %s, chanced items: %s, chanced fluids: %s",
+                        category, items, fluids, chancedItems, chancedFluids));
     }
 
     @Unique
     public boolean removeByOutput(Predicate<Recipe> condition, List<ItemStack> items, List<FluidStack> fluids,
                                   List<ChancedItemOutput> chancedItems, List<ChancedFluidOutput> chancedFluids) {
         return removeByOutput(condition, items, fluids, chancedItems, chancedFluids,
-                String.format("items: %s, fluids: %s, chanced items: %s, chanced fluids: %s", items, fluids,
+                () -> String.format("items: %s, fluids: %s, chanced items: %s, chanced fluids: %s", items, fluids,
                         chancedItems, chancedFluids));
     }
 
     @Unique
     private boolean removeByOutput(Predicate<Recipe> condition, List<ItemStack> items, List<FluidStack> fluids,
                                    List<ChancedItemOutput> chancedItems, List<ChancedFluidOutput> chancedFluids,
-                                   String components) {
+                                   Supplier<String> components) {
         List<Recipe> recipes = findByOutput(condition, items, fluids, chancedItems, chancedFluids);
         if (recipes == null) {
             if (LabsGroovyHelper.isRunningGroovyScripts()) {
                 GroovyLog.msg("Error removing GregTech " + getName() + " recipes by output")
-                        .add("could not find recipe for: " + components)
+                        .add("could not find recipe for: " + components.get())
                         .error()
                         .post();
             }
@@ -284,32 +275,32 @@ public abstract class VirtualizedRecipeMapMixin {
 
     @Unique
     public ChangeRecipeBuilder<?> changeByInput(List<ItemStack> items, List<FluidStack> fluids) {
-        return changeByInput((r) -> true, items, fluids,
-                String.format("items: %s, fluids: %s", items, fluids));
+        return changeByInput(RecipeMapQuery.ANY, items, fluids,
+                () -> String.format("items: %s, fluids: %s", items, fluids));
     }
 
     @Unique
     public ChangeRecipeBuilder<?> changeByInput(GTRecipeCategory category, List<ItemStack> items,
                                                 List<FluidStack> fluids) {
-        return changeByInput((r) -> Objects.equals(r.getRecipeCategory(), category), items, fluids,
-                String.format("category: %s, items %s, fluids %s", category, items, fluids));
+        return changeByInput(RecipeMapQuery.inCategory(category), items, fluids,
+                () -> String.format("category: %s, items %s, fluids %s", category, items, fluids));
     }
 
     @Unique
     public ChangeRecipeBuilder<?> changeByInput(Predicate<Recipe> condition, List<ItemStack> items,
                                                 List<FluidStack> fluids) {
-        return changeByInput(condition, items, fluids, String.format("items: %s, fluids: %s", items, fluids));
+        return changeByInput(condition, items, fluids, () -> String.format("items: %s, fluids: %s", items, fluids));
     }
 
     @Unique
     private ChangeRecipeBuilder<?> changeByInput(Predicate<Recipe> condition, List<ItemStack> items,
                                                  List<FluidStack> fluids,
-                                                 String components) {
+                                                 Supplier<String> components) {
         Recipe recipe = find(condition, items, fluids);
         if (recipe == null) {
             if (LabsGroovyHelper.isRunningGroovyScripts()) {
                 GroovyLog.msg("Error changing GregTech " + getName() + " recipe")
-                        .add("could not find recipe for: " + components)
+                        .add("could not find recipe for: " + components.get())
                         .error()
                         .post();
             }
@@ -362,8 +353,8 @@ public abstract class VirtualizedRecipeMapMixin {
     public Stream<ChangeRecipeBuilder<?>> changeByOutput(List<ItemStack> items, List<FluidStack> fluids,
                                                          List<ChancedItemOutput> chancedItems,
                                                          List<ChancedFluidOutput> chancedFluids) {
-        return changeByOutput((r) -> true, items, fluids, chancedItems, chancedFluids,
-                String.format("items: %s, fluids: %s, chanced items: %s, chanced fluids: %s", items, fluids,
+        return changeByOutput(RecipeMapQuery.ANY, items, fluids, chancedItems, chancedFluids,
+                () -> String.format("items: %s, fluids: %s, chanced items: %s, chanced fluids: %s", items, fluids,
                         chancedItems, chancedFluids));
     }
 
@@ -372,10 +363,10 @@ public abstract class VirtualizedRecipeMapMixin {
                                                          List<FluidStack> fluids,
                                                          List<ChancedItemOutput> chancedItems,
                                                          List<ChancedFluidOutput> chancedFluids) {
-        return changeByOutput((r) -> Objects.equals(r.getRecipeCategory(), category), items, fluids,
+        return changeByOutput(RecipeMapQuery.inCategory(category), items, fluids,
                 chancedItems, chancedFluids,
-                String.format("category: %s, items: %s, fluids: %s, chanced items: %s, chanced fluids: %s", category,
-                        items, fluids, chancedItems, chancedFluids));
+                () -> String.format("category: %s, items: %s, fluids: %s, chanced items: %s, chanced fluids: %s",
+                        category, items, fluids, chancedItems, chancedFluids));
     }
 
     @Unique
@@ -384,7 +375,7 @@ public abstract class VirtualizedRecipeMapMixin {
                                                          List<ChancedItemOutput> chancedItems,
                                                          List<ChancedFluidOutput> chancedFluids) {
         return changeByOutput(condition, items, fluids, chancedItems, chancedFluids,
-                String.format("items: %s, fluids: %s, chanced items: %s, chanced fluids: %s", items, fluids,
+                () -> String.format("items: %s, fluids: %s, chanced items: %s, chanced fluids: %s", items, fluids,
                         chancedItems, chancedFluids));
     }
 
@@ -393,12 +384,12 @@ public abstract class VirtualizedRecipeMapMixin {
                                                           List<FluidStack> fluids,
                                                           List<ChancedItemOutput> chancedItems,
                                                           List<ChancedFluidOutput> chancedFluids,
-                                                          String components) {
+                                                          Supplier<String> components) {
         List<Recipe> recipes = findByOutput(condition, items, fluids, chancedItems, chancedFluids);
         if (recipes == null) {
             if (LabsGroovyHelper.isRunningGroovyScripts()) {
                 GroovyLog.msg("Error changing GregTech " + getName() + " recipes by output")
-                        .add("could not find recipe for: " + components)
+                        .add("could not find recipe for: " + components.get())
                         .error()
                         .post();
             }
@@ -409,7 +400,7 @@ public abstract class VirtualizedRecipeMapMixin {
 
     @Unique
     public Stream<ChangeRecipeBuilder<?>> changeAllRecipes() {
-        return changeAllRecipes((r) -> true);
+        return changeAllRecipes(RecipeMapQuery.ANY);
     }
 
     @Unique
@@ -421,7 +412,7 @@ public abstract class VirtualizedRecipeMapMixin {
 
     @Unique
     public Stream<ChangeRecipeBuilder<?>> changeAllRecipes(GTRecipeCategory category) {
-        return changeAllRecipes(category, (r) -> true);
+        return changeAllRecipes(category, RecipeMapQuery.ANY);
     }
 
     @Unique
@@ -432,15 +423,70 @@ public abstract class VirtualizedRecipeMapMixin {
                 .map((r) -> new ChangeRecipeBuilder<>(r, recipeMap));
     }
 
+    /**
+     * Applies a mutation to every recipe matching the condition, in one pass over the map. The originals are removed
+     * and the mutated recipes added after the pass, so the map is not modified whilst iterating. Recipes whose mutated
+     * recipe is invalid are kept as is.
+     *
+     * @return Number of recipes mutated.
+     */
     @Unique
-    private AccessibleRecipeMap getAccessibleRecipeMap() {
-        return (AccessibleRecipeMap) recipeMap;
+    public int mutateRecipes(Predicate<Recipe> condition, Consumer<RecipeMutation> mutation) {
+        return mutateRecipes(recipeMap.getRecipeList(), condition, mutation);
+    }
+
+    @Unique
+    public int mutateRecipes(GTRecipeCategory category, Predicate<Recipe> condition,
+                             Consumer<RecipeMutation> mutation) {
+        return mutateRecipes(recipeMap.getRecipesByCategory().getOrDefault(category, Collections.emptyList()),
+                condition, mutation);
+    }
+
+    @Unique
+    public int mutateRecipes(GTRecipeCategory category, Consumer<RecipeMutation> mutation) {
+        return mutateRecipes(category, RecipeMapQuery.ANY, mutation);
     }
 
     @Unique
-    @NotNull
-    private <T> List<T> validateList(@Nullable List<T> list) {
-        if (list == null || list.isEmpty()) return Collections.emptyList();
-        return list;
+    private int mutateRecipes(Collection<Recipe> recipes, Predicate<Recipe> condition,
+                              Consumer<RecipeMutation> mutation) {
+        var time = System.currentTimeMillis();
+        var spec = new RecipeMutation();
+        mutation.accept(spec);
+
+        // Don't modify the map whilst iterating over it
+        List<Recipe> toRemove = new ObjectArrayList<>();
+        List<ValidationResult<Recipe>> toAdd = new ObjectArrayList<>();
+        for (var recipe : recipes) {
+            if (!condition.test(recipe)) continue;
+            var builder = new ChangeRecipeBuilder<>(recipe, recipeMap);
+            spec.apply(builder);
+            var result = builder.build();
+            if (result.getType() != EnumValidationResult.VALID) {
+                GroovyLog.msg("Error mutating GregTech " + getName() + " recipe")
+                        .add("mutated recipe is invalid, keeping original: " + recipe)
+                        .error()
+                        .post();
+                continue;
+            }
+            toRemove.add(recipe);
+            toAdd.add(result);
+        }
+
+        for (var recipe : toRemove) {
+            recipeMap.removeRecipe(recipe);
+        }
+        for (var result : toAdd) {
+            recipeMap.addRecipe(result);
+        }
+
+        NomiLabs.LOGGER.debug("Mutating {} recipes in {} took {}ms", toRemove.size(), getName(),
+                System.currentTimeMillis() - time);
+        return toRemove.size();
+    }
+
+    @Unique
+    private AccessibleRecipeMap getAccessibleRecipeMap() {
+        return (AccessibleRecipeMap) recipeMap;
     }
 }
@@ -1,11 +1,16 @@
 package com.nomiceu.nomilabs.recipe;
 
+import java.util.Collection;
+import java.util.List;
+
 import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.IRecipe;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 import net.minecraftforge.common.crafting.IShapedRecipe;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
 import net.minecraftforge.registries.IForgeRegistryEntry;
 
 import org.jetbrains.annotations.NotNull;
@@ -13,10 +18,13 @@ import org.jetbrains.annotations.NotNull;
 import com.jaquadro.minecraft.storagedrawers.api.storage.attribute.IFrameable;
 import com.jaquadro.minecraft.storagedrawers.block.tile.TileEntityFramingTable;
 
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
 /**
  * This is the actual hand framing recipe, whilst the one in GroovyScript is the example one.
  */
-public class HandFramingRecipe extends IForgeRegistryEntry.Impl<IRecipe> implements IRecipe, IShapedRecipe {
+public class HandFramingRecipe extends IForgeRegistryEntry.Impl<IRecipe>
+                               implements IRecipe, IShapedRecipe, IndexedCraftingRecipe {
 
     public HandFramingRecipe(ResourceLocation rl) {
         setRegistryName(rl);
@@ -112,6 +120,18 @@ public class HandFramingRecipe extends IForgeRegistryEntry.Impl<IRecipe> impleme
         return ItemStack.EMPTY;
     }
 
+    /**
+     * Key Items are all Frameable Items (Drawers, Trims, etc.)
+     */
+    @Override
+    public Collection<Item> getKeyItems() {
+        List<Item> items = new ObjectArrayList<>();
+        for (var item : ForgeRegistries.ITEMS.getValuesCollection()) {
+            if (item instanceof IFrameable) items.add(item);
+        }
+        return items;
+    }
+
     @Override
     public @NotNull ItemStack getRecipeOutput() {
         // Dynamic Recipe
@@ -0,0 +1,23 @@
+package com.nomiceu.nomilabs.recipe;
+
+import java.util.Collection;
+
+import net.minecraft.item.Item;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A crafting recipe which can only match if at least one of its key items is in the grid.
+ * <p>
+ * See {@link LabsCraftingIndex}.
+ */
+public interface IndexedCraftingRecipe {
+
+    /**
+     * Gets the key items of this recipe. Called once per index build.
+     *
+     * @return Key items, or null if this recipe cannot be indexed, and should always be checked.
+     */
+    @Nullable
+    Collection<Item> getKeyItems();
+}
@@ -0,0 +1,164 @@
+package com.nomiceu.nomilabs.recipe;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.nomiceu.nomilabs.NomiLabs;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+
+/**
+ * Pre-filter index for Labs' custom crafting recipes ({@link IndexedCraftingRecipe}s).
+ * <p>
+ * Vanilla asks every recipe whether it matches a grid. This index maps key items to the recipes needing them. When
+ * vanilla searches the recipes for a grid (see the Crafting Manager Mixin), the set of candidate recipes is computed
+ * once for that search, and every other indexed recipe is skipped with a single set lookup, without its matches
+ * method being called.
+ * <p>
+ * Built from the recipe registry on first use, and cleared after each script load. Recipes not in the index (e.g.
+ * registered after it was built) are always checked.
+ */
+public class LabsCraftingIndex {
+
+    @Nullable
+    private static volatile Index index = null;
+
+    private static volatile int generation = 0;
+
+    private static final ThreadLocal<GridCache> gridCache = ThreadLocal.withInitial(GridCache::new);
+
+    /**
+     * Starts a search of the recipes for a grid, so its candidates are computed (once) for this search.
+     */
+    public static void beginSearch() {
+        gridCache.get().invalidate();
+    }
+
+    /**
+     * Whether a recipe may match the grid currently being searched. If false, the recipe definitely does not match.
+     */
+    public static boolean mayMatch(@NotNull InventoryCrafting inv, @NotNull IRecipe recipe) {
+        var current = getIndex();
+        if (!current.indexed.contains(recipe)) return true;
+        return gridCache.get().getCandidates(inv, current).contains(recipe);
+    }
+
+    public static void clear() {
+        index = null;
+        generation++;
+    }
+
+    /**
+     * Incremented every time the index is cleared. Recipes caching their key items should recompute them on change.
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+
+    @NotNull
+    private static Index getIndex() {
+        var current = index;
+        if (current != null) return current;
+
+        synchronized (LabsCraftingIndex.class) {
+            if (index == null) index = buildIndex();
+            return index;
+        }
+    }
+
+    @NotNull
+    private static Index buildIndex() {
+        var time = System.currentTimeMillis();
+        Map<Item, Set<IRecipe>> byItem = new Object2ObjectOpenHashMap<>();
+        Set<IRecipe> indexed = new ReferenceOpenHashSet<>();
+
+        for (var recipe : ForgeRegistries.RECIPES.getValuesCollection()) {
+            if (!(recipe instanceof IndexedCraftingRecipe indexedRecipe)) continue;
+            var keys = indexedRecipe.getKeyItems();
+            if (keys == null) continue;
+
+            indexed.add(recipe);
+            for (var item : keys) {
+                byItem.computeIfAbsent(item, (k) -> new ReferenceOpenHashSet<>()).add(recipe);
+            }
+        }
+
+        NomiLabs.LOGGER.info("Building Labs Crafting Index ({} recipes) took {}ms", indexed.size(),
+                System.currentTimeMillis() - time);
+        return new Index(byItem, indexed);
+    }
+
+    private static class Index {
+
+        private final Map<Item, Set<IRecipe>> byItem;
+        private final Set<IRecipe> indexed;
+
+        private Index(Map<Item, Set<IRecipe>> byItem, Set<IRecipe> indexed) {
+            this.byItem = byItem;
+            this.indexed = indexed;
+        }
+    }
+
+    /**
+     * The candidates of the grid being searched. Only valid for one search, as the grid may change between searches.
+     */
+    private static class GridCache {
+
+        @Nullable
+        private Index index = null;
+        @Nullable
+        private InventoryCrafting inv = null;
+        private Set<IRecipe> candidates = Collections.emptySet();
+
+        private void invalidate() {
+            index = null;
+            inv = null;
+            candidates = Collections.emptySet();
+        }
+
+        @NotNull
+        private Set<IRecipe> getCandidates(@NotNull InventoryCrafting inv, @NotNull Index current) {
+            // A nested search (e.g. from another recipe's matches) invalidates this, so it is just computed again
+            if (this.inv == inv && index == current) return candidates;
+
+            int width = inv.getWidth();
+            int size = width * inv.getHeight();
+            Set<IRecipe> newCandidates = null;
+            boolean copied = false;
+            Set<Item> seen = new ReferenceOpenHashSet<>(size);
+            // Not using inv.stackList, as the stackList may not be correct for a given invCrafting.
+            for (int i = 0; i < size; i++) {
+                var stack = inv.getStackInRowAndColumn(i % width, i / width);
+                if (stack.isEmpty() || !seen.add(stack.getItem())) continue;
+                var recipes = current.byItem.get(stack.getItem());
+                if (recipes == null) continue;
+
+                if (newCandidates == null) {
+                    newCandidates = recipes;
+                    continue;
+                }
+                // Copy before merging, so the index is never modified
+                if (!copied) {
+                    newCandidates = new ReferenceOpenHashSet<>(newCandidates);
+                    copied = true;
+                }
+                newCandidates.addAll(recipes);
+            }
+
+            this.inv = inv;
+            index = current;
+            candidates = newCandidates == null ? Collections.emptySet() : newCandidates;
+            return candidates;
+        }
+    }
+}
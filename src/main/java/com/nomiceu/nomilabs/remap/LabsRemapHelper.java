@@ -1,26 +1,33 @@
 package com.nomiceu.nomilabs.remap;
 
-import java.util.Map;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.regex.Pattern;
 
 import net.minecraft.nbt.NBTBase;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
-import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.chunk.NibbleArray;
 import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.fml.common.StartupQuery;
 import net.minecraftforge.fml.common.ZipperUtil;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.nomiceu.nomilabs.NomiLabs;
+import com.nomiceu.nomilabs.config.LabsConfig;
 import com.nomiceu.nomilabs.config.LabsVersionConfig;
 import com.nomiceu.nomilabs.remap.datafixer.DataFixerHandler;
 import com.nomiceu.nomilabs.remap.datafixer.LabsFixes;
+import com.nomiceu.nomilabs.remap.datafixer.storage.BlockIdBitmap;
 import com.nomiceu.nomilabs.remap.datafixer.storage.BlockRewriter;
 import com.nomiceu.nomilabs.remap.datafixer.storage.BlockStateLike;
+import com.nomiceu.nomilabs.remap.datafixer.storage.ChunkTileEntities;
 import com.nomiceu.nomilabs.remap.datafixer.storage.CompoundRewriter;
 
-import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 
 public class LabsRemapHelper {
 
@@ -29,13 +36,18 @@ public class LabsRemapHelper {
     public static final int MIN_META_ITEM_BASE_ID = 32000; // The Base ID where the Old Meta Items/Materials started
                                                            // from
     public static final int MIN_META_BLOCK_BASE_ID = 2000; // The Base ID where the Old Meta Blocks started from
+    public static final int SECTION_VOLUME = 16 * 16 * 16;
+    public static final int MAX_NBT_DEPTH = 512; // Same as the limit when reading NBT
 
-    private static Map<BlockPos, NBTTagCompound> posToTileEntityCache;
+    /* Thread Local, as chunks may be fixed in parallel by the Offline World Fixer */
+    private static final ThreadLocal<ChunkTileEntities> chunkTileEntities = ThreadLocal
+            .withInitial(ChunkTileEntities::new);
 
     public static void createWorldBackup() {
         try {
             NomiLabs.LOGGER.info("Creating world backup...");
-            ZipperUtil.backupWorld();
+            if (LabsConfig.advanced.enableFastWorldBackup) WorldBackup.backupWorld();
+            else ZipperUtil.backupWorld();
         } catch (Exception e) {
             abort();
             NomiLabs.LOGGER.error("Error creating backup. Closing...");
@@ -43,95 +55,273 @@ public class LabsRemapHelper {
         }
     }
 
+    /**
+     * Rewrites every compound tag nested in the tag, children before parents. The tag itself is not rewritten.
+     * <p>
+     * Walks with an explicit stack, instead of recursion, so deeply nested tags cannot overflow the stack. Tags
+     * deeper than {@link #MAX_NBT_DEPTH} are rewritten, but not walked into. Tags that can never hold a compound
+     * (numbers, strings, arrays and lists of those) are skipped without being walked.
+     */
     public static void rewriteCompoundTags(NBTTagCompound tag, CompoundRewriter rewriter) {
-        for (String key : tag.getKeySet()) {
-            NBTBase childTag = tag.getTag(key);
-            switch (childTag.getId()) {
-                case Constants.NBT.TAG_LIST -> rewriteCompoundTags((NBTTagList) childTag, rewriter);
-                case Constants.NBT.TAG_COMPOUND -> {
-                    NBTTagCompound childTagCompound = (NBTTagCompound) childTag;
-                    rewriteCompoundTags(childTagCompound, rewriter);
-                    childTagCompound = rewriter.rewrite(childTagCompound);
-                    if (childTagCompound != null) {
-                        tag.setTag(key, childTagCompound);
-                    }
+        walkCompoundTags(tag, rewriter);
+    }
+
+    /**
+     * See {@link #rewriteCompoundTags(NBTTagCompound, CompoundRewriter)}.
+     */
+    public static void rewriteCompoundTags(NBTTagList tag, CompoundRewriter rewriter) {
+        if (!mayHoldCompounds(tag)) return;
+        walkCompoundTags(tag, rewriter);
+    }
+
+    private static void walkCompoundTags(NBTBase root, CompoundRewriter rewriter) {
+        List<WalkFrame> frames = new ObjectArrayList<>();
+        frames.add(new WalkFrame().set(root, null, -1));
+        int depth = 0;
+        boolean warned = false;
+
+        while (depth >= 0) {
+            var frame = frames.get(depth);
+            NBTBase child = frame.next();
+
+            if (child == null) {
+                // All children walked, rewrite this compound and set it back in its parent
+                if (depth > 0 && frame.compound != null)
+                    rewriteChild(frames.get(depth - 1), frame.key, frame.index, frame.compound, rewriter);
+                frame.clear();
+                depth--;
+                continue;
+            }
+
+            if (depth + 1 >= MAX_NBT_DEPTH) {
+                if (!warned) {
+                    NomiLabs.LOGGER.warn("[Data Fixer] NBT nested deeper than {} levels! Not walking any deeper.",
+                            MAX_NBT_DEPTH);
+                    warned = true;
                 }
+                if (child instanceof NBTTagCompound compound)
+                    rewriteChild(frame, frame.childKey, frame.childIndex, compound, rewriter);
+                continue;
             }
+
+            depth++;
+            if (frames.size() <= depth) frames.add(new WalkFrame());
+            frames.get(depth).set(child, frame.childKey, frame.childIndex);
         }
     }
 
-    public static void rewriteCompoundTags(NBTTagList tag, CompoundRewriter rewriter) {
-        for (int i = 0; i < tag.tagCount(); i++) {
-            NBTBase childTag = tag.get(i);
-            switch (childTag.getId()) {
-                case Constants.NBT.TAG_LIST -> rewriteCompoundTags((NBTTagList) childTag, rewriter);
-                case Constants.NBT.TAG_COMPOUND -> {
-                    NBTTagCompound childTagCompound = (NBTTagCompound) childTag;
-                    rewriteCompoundTags(childTagCompound, rewriter);
-                    childTagCompound = rewriter.rewrite(childTagCompound);
-                    if (childTagCompound != null) {
-                        tag.set(i, childTagCompound);
-                    }
+    private static void rewriteChild(WalkFrame parent, @Nullable String key, int index, NBTTagCompound child,
+                                     CompoundRewriter rewriter) {
+        var rewritten = rewriter.rewrite(child);
+        if (rewritten == null) return;
+        if (parent.compound != null) parent.compound.setTag(Objects.requireNonNull(key), rewritten);
+        else if (parent.list != null) parent.list.set(index, rewritten);
+    }
+
+    /**
+     * Whether a tag is a compound, or a list of compounds or lists. Other tags can never hold a compound.
+     */
+    private static boolean mayHoldCompounds(NBTBase tag) {
+        return switch (tag.getId()) {
+            case Constants.NBT.TAG_COMPOUND -> true;
+            case Constants.NBT.TAG_LIST -> {
+                int type = ((NBTTagList) tag).getTagType();
+                yield type == Constants.NBT.TAG_COMPOUND || type == Constants.NBT.TAG_LIST;
+            }
+            default -> false;
+        };
+    }
+
+    /**
+     * A compound or list being walked, and where it is in its parent.
+     */
+    private static class WalkFrame {
+
+        @Nullable
+        private NBTTagCompound compound;
+        @Nullable
+        private Iterator<String> keys;
+        @Nullable
+        private NBTTagList list;
+        private int nextIndex;
+
+        /* Position in the parent */
+        @Nullable
+        private String key;
+        private int index;
+
+        /* Position of the child last returned by next() */
+        @Nullable
+        private String childKey;
+        private int childIndex;
+
+        private WalkFrame set(NBTBase tag, @Nullable String key, int index) {
+            if (tag instanceof NBTTagCompound tagCompound) {
+                compound = tagCompound;
+                keys = tagCompound.getKeySet().iterator();
+            } else {
+                list = (NBTTagList) tag;
+                nextIndex = 0;
+            }
+            this.key = key;
+            this.index = index;
+            return this;
+        }
+
+        /**
+         * Gets the next child which may hold compounds, or null if there are none left.
+         */
+        @Nullable
+        private NBTBase next() {
+            if (compound != null && keys != null) {
+                while (keys.hasNext()) {
+                    var childKey = keys.next();
+                    var child = compound.getTag(childKey);
+                    if (!mayHoldCompounds(child)) continue;
+                    this.childKey = childKey;
+                    return child;
                 }
+                return null;
             }
+            if (list != null) {
+                while (nextIndex < list.tagCount()) {
+                    int i = nextIndex++;
+                    var child = list.get(i);
+                    if (!mayHoldCompounds(child)) continue;
+                    this.childIndex = i;
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private void clear() {
+            compound = null;
+            keys = null;
+            list = null;
+            key = null;
+            childKey = null;
         }
     }
 
     public static void rewriteBlocks(NBTTagCompound compound, BlockRewriter rewriter) {
-        clearTECache();
-        NBTTagCompound levelTag = compound.getCompoundTag("Level");
-        int x = levelTag.getInteger("xPos");
-        int z = levelTag.getInteger("zPos");
-        NBTTagList sectionListTag = levelTag.getTagList("Sections", Constants.NBT.TAG_COMPOUND);
-        for (int i = 0; i < sectionListTag.tagCount(); i++) {
-            sectionListTag.set(i, rewriteBlocksInSection(sectionListTag.getCompoundTagAt(i), x, z, rewriter));
-        }
-        if (posToTileEntityCache != null) {
-            var tagList = new NBTTagList();
-            posToTileEntityCache.values().forEach(tagList::appendTag);
-            levelTag.setTag("TileEntities", tagList);
+        rewriteBlocks(compound, rewriter, null);
+    }
+
+    /**
+     * Rewrites the blocks of a chunk.
+     *
+     * @param rewrittenIds Ids of the blocks the rewriter may change. Sections without any of these ids are skipped
+     *                     entirely. If null, every section is rewritten.
+     */
+    public static void rewriteBlocks(NBTTagCompound compound, BlockRewriter rewriter,
+                                     @Nullable BlockIdBitmap rewrittenIds) {
+        var tileEntities = chunkTileEntities.get();
+        tileEntities.clear();
+        try {
+            NBTTagCompound levelTag = compound.getCompoundTag("Level");
+            int x = levelTag.getInteger("xPos");
+            int z = levelTag.getInteger("zPos");
+            NBTTagList sectionListTag = levelTag.getTagList("Sections", Constants.NBT.TAG_COMPOUND);
+            BlockStateLike state = null; // Reused for every block in this chunk
+            for (int i = 0; i < sectionListTag.tagCount(); i++) {
+                var section = sectionListTag.getCompoundTagAt(i);
+                if (rewrittenIds != null &&
+                        !rewrittenIds.anyIn(section.getByteArray("Blocks"), getAddArray(section)))
+                    continue;
+
+                if (state == null) state = new BlockStateLike();
+                rewriteBlocksInSection(section, x, z, rewriter, state);
+            }
+            if (tileEntities.isLoaded()) levelTag.setTag("TileEntities", tileEntities.toTagList());
+        } finally {
+            // Don't hold onto this chunk's Tile Entities
+            tileEntities.clear();
         }
     }
 
-    private static NBTTagCompound rewriteBlocksInSection(NBTTagCompound chunkSectionTag, int chunkX, int chunkZ,
-                                                         BlockRewriter rewriter) {
+    /**
+     * Rewrites the blocks of a section in place, working directly on its Blocks, Data and Add arrays.
+     * <p>
+     * The given state is reset for each block, so nothing is allocated per block, unless the rewriter changes it.
+     * Blocks are only written back if their id or meta actually changes.
+     */
+    public static void rewriteBlocksInSection(NBTTagCompound chunkSectionTag, int chunkX, int chunkZ,
+                                              BlockRewriter rewriter, BlockStateLike state) {
         byte[] blockIds = chunkSectionTag.getByteArray("Blocks");
-        int chunkY = chunkSectionTag.getInteger("Y");
-        NibbleArray blockMetadata = new NibbleArray(chunkSectionTag.getByteArray("Data"));
-        NibbleArray extendedIds = chunkSectionTag.hasKey("Add", Constants.NBT.TAG_BYTE_ARRAY) ?
-                new NibbleArray(chunkSectionTag.getByteArray("Add")) : null;
-        for (int i = 0; i < 4096; ++i) {
-            int x = i & 0x0F, y = i >> 8 & 0x0F, z = i >> 4 & 0x0F;
+        byte[] blockMetadata = chunkSectionTag.getByteArray("Data");
+        byte[] extendedIds = getAddArray(chunkSectionTag);
+        if (blockIds.length < SECTION_VOLUME || blockMetadata.length < SECTION_VOLUME / 2) return;
 
+        int baseX = chunkX << 4;
+        int baseY = chunkSectionTag.getInteger("Y") << 4;
+        int baseZ = chunkZ << 4;
+        var idToBlock = DataFixerHandler.getIdToBlockTable();
+        var idToCurrentId = DataFixerHandler.getIdToCurrentIdTable();
+        boolean extendedCreated = false;
+
+        for (int i = 0; i < SECTION_VOLUME; ++i) {
             // This is based off BlockStateContainer's setDataFromNBT
             // There, the block id is shifted by 4, and extended is shifted by 12
             // However, that is to allow the accommodation of 4 bits of metadata info
             // Thus, here, the block id is not shifted, and extended is only shifted by 8.
             int id = extendedIds == null ? (blockIds[i] & 0xFF) :
-                    ((blockIds[i] & 0xFF) | (extendedIds.get(x, y, z) << 8));
-            var state = new BlockStateLike(id, (short) blockMetadata.get(x, y, z),
-                    new BlockPos(chunkX * 16 + x, chunkY * 16 + y, chunkZ * 16 + z));
-            if (state.invalid) continue;
+                    ((blockIds[i] & 0xFF) | (getNibble(extendedIds, i) << 8));
+            ResourceLocation rl = idToBlock[id];
+            if (rl == null) continue;
+
+            // Index is y << 8 | z << 4 | x
+            int meta = getNibble(blockMetadata, i);
+            state.reset(id, rl, (short) meta, baseX + (i & 0x0F), baseY + (i >> 8 & 0x0F), baseZ + (i >> 4 & 0x0F));
             BlockStateLike remapped = rewriter.rewrite(state);
-            if (remapped != null) {
-                blockIds[i] = (byte) (remapped.getId() & 0xFF);
-                int idExt = (remapped.getId() >> 8) & 0x0F;
-                if (idExt != 0) {
-                    if (extendedIds == null) {
-                        extendedIds = new NibbleArray();
-                    }
-                    extendedIds.set(x, y, z, idExt);
-                }
-                blockMetadata.set(x, y, z, remapped.meta & 0x0F);
+            if (remapped == null) continue;
 
-                if (posToTileEntityCache != null && remapped.tileEntityTag != null)
-                    posToTileEntityCache.put(remapped.pos, remapped.tileEntityTag);
+            // Unchanged Resource Locations still need to be saved with their current id (remapped ids)
+            int newId = remapped.rl == rl ? idToCurrentId[id] : remapped.getId();
+            if (newId != id) {
+                blockIds[i] = (byte) (newId & 0xFF);
+                int idExt = (newId >> 8) & 0x0F;
+                if (extendedIds == null && idExt != 0) {
+                    extendedIds = new byte[SECTION_VOLUME / 2];
+                    extendedCreated = true;
+                }
+                if (extendedIds != null) setNibble(extendedIds, i, idExt);
             }
+
+            int newMeta = remapped.meta & 0x0F;
+            if (newMeta != meta) setNibble(blockMetadata, i, newMeta);
+
+            var tileEntities = chunkTileEntities.get();
+            if (tileEntities.isLoaded() && remapped.tileEntityTag != null)
+                tileEntities.put(remapped.pos.getX(), remapped.pos.getY(), remapped.pos.getZ(),
+                        remapped.tileEntityTag);
         }
-        if (extendedIds != null) {
-            chunkSectionTag.setByteArray("Add", extendedIds.getData());
+        if (extendedCreated) {
+            chunkSectionTag.setByteArray("Add", extendedIds);
         }
-        return chunkSectionTag;
+    }
+
+    @Nullable
+    private static byte[] getAddArray(NBTTagCompound chunkSectionTag) {
+        if (!chunkSectionTag.hasKey("Add", Constants.NBT.TAG_BYTE_ARRAY)) return null;
+        return chunkSectionTag.getByteArray("Add");
+    }
+
+    /**
+     * Same as {@link NibbleArray#getFromIndex(int)}, without needing to wrap the array.
+     */
+    private static int getNibble(byte[] nibbles, int index) {
+        int value = nibbles[index >> 1];
+        return (index & 1) == 0 ? value & 0x0F : value >> 4 & 0x0F;
+    }
+
+    /**
+     * Same as {@link NibbleArray#setIndex(int, int)}, without needing to wrap the array.
+     */
+    private static void setNibble(byte[] nibbles, int index, int value) {
+        int i = index >> 1;
+        if ((index & 1) == 0) nibbles[i] = (byte) (nibbles[i] & 0xF0 | value & 0x0F);
+        else nibbles[i] = (byte) (nibbles[i] & 0x0F | (value & 0x0F) << 4);
     }
 
     public static boolean tagHasItemInfo(NBTTagCompound tag) {
@@ -140,26 +330,20 @@ public class LabsRemapHelper {
     }
 
     public static void clearTECache() {
-        posToTileEntityCache = null;
+        chunkTileEntities.get().clear();
     }
 
     /**
-     * Call Clear TE Cache every time doing this on a new section!
+     * Gets the Tile Entities of the chunk being rewritten, loading them if needed.
+     * <br>
+     * Call Clear TE Cache every time doing this on a new chunk!
      * <br>
      * {@link LabsRemapHelper#rewriteBlocks(NBTTagCompound, BlockRewriter)} does this for you!
      */
-    public static Map<BlockPos, NBTTagCompound> getPosToTileEntityMap(NBTTagCompound chunkTag) {
-        if (posToTileEntityCache != null) return posToTileEntityCache;
-        posToTileEntityCache = new Object2ObjectLinkedOpenHashMap<>();
-        NBTTagCompound levelTag = chunkTag.getCompoundTag("Level");
-        NBTTagList tileEntities = levelTag.getTagList("TileEntities", Constants.NBT.TAG_COMPOUND); // Returns empty if
-                                                                                                   // doesn't exist
-        for (var te : tileEntities) {
-            var tag = (NBTTagCompound) te;
-            posToTileEntityCache.put(
-                    new BlockPos(tag.getInteger("x"), tag.getInteger("y"), tag.getInteger("z")), tag);
-        }
-        return posToTileEntityCache;
+    public static ChunkTileEntities getChunkTileEntities(NBTTagCompound chunkTag) {
+        var tileEntities = chunkTileEntities.get();
+        if (!tileEntities.isLoaded()) tileEntities.load(chunkTag.getCompoundTag("Level"));
+        return tileEntities;
     }
 
     /**
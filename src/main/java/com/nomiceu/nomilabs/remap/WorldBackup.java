@@ -0,0 +1,186 @@
+package com.nomiceu.nomilabs.remap;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import net.minecraftforge.fml.common.FMLCommonHandler;
+
+import com.nomiceu.nomilabs.NomiLabs;
+import com.nomiceu.nomilabs.config.LabsConfig;
+import com.nomiceu.nomilabs.remap.datafixer.OfflineWorldFixer;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+
+/**
+ * Fast backup of the parts of a world that Data Fixes and Remaps may change, created before they are applied.
+ * <p>
+ * Only level.dat, and the files in region, data, playerdata and EnderStorage directories (of any dimension), are
+ * backed up. Files are copied, not hard linked, as region and data files are rewritten in place, which would change a
+ * hard linked backup too.
+ * <p>
+ * Files are compressed by worker threads, largest first, each thread writing its own zip. Like Forge's world backups,
+ * zip entries are prefixed by the world's folder name, so extracting every zip into the saves folder restores the
+ * world.
+ */
+public class WorldBackup {
+
+    private static final Set<String> BACKED_UP_DIRS = new ObjectOpenHashSet<>(
+            new String[] { "region", "data", "playerdata", "EnderStorage" });
+    private static final Set<String> BACKED_UP_ROOT_FILES = new ObjectOpenHashSet<>(
+            new String[] { "level.dat", "level.dat_old" });
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int PROGRESS_STEPS = 10;
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    public static void backupWorld() throws IOException {
+        var server = FMLCommonHandler.instance().getMinecraftServerInstance();
+        backupWorld(FMLCommonHandler.instance().getSavesDirectory(), server.getFolderName(), server.getWorldName());
+    }
+
+    public static void backupWorld(File savesDir, String dirName, String saveName) throws IOException {
+        var time = System.currentTimeMillis();
+        var worldDir = new File(savesDir, dirName).toPath();
+
+        List<Path> files = getBackedUpFiles(worldDir);
+        if (files.isEmpty()) {
+            NomiLabs.LOGGER.info("[World Backup] Nothing to back up.");
+            return;
+        }
+        long totalBytes = files.stream().mapToLong((file) -> file.toFile().length()).sum();
+
+        var backupDir = new File(savesDir,
+                String.format("%s-%2$tY%2$tm%2$td-%2$tH%2$tM%2$tS-backup", saveName, time));
+        if (!backupDir.mkdirs()) throw new IOException("Failed to create backup directory " + backupDir + "!");
+
+        int threads = OfflineWorldFixer.getThreads(files.size());
+        int level = LabsConfig.advanced.worldBackupCompressionLevel;
+        NomiLabs.LOGGER.info("[World Backup] Backing up {} files ({} MB), with {} threads, at compression level {}...",
+                files.size(), totalBytes / BYTES_PER_MB, threads, level);
+
+        Queue<Path> queue = new ConcurrentLinkedQueue<>(files);
+        var progress = new Progress(totalBytes);
+        ExecutorService executor = OfflineWorldFixer.newWorkerPool("Labs World Backup", threads);
+        try {
+            List<Future<?>> futures = new ObjectArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                var zipFile = new File(backupDir, String.format("%s-part%d.zip", saveName, i + 1));
+                futures.add(executor.submit(() -> {
+                    writePart(zipFile, worldDir, dirName, queue, level, progress);
+                    return null;
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while backing up world!", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IOException("Failed to back up world!", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        NomiLabs.LOGGER.info("[World Backup] World backup created at {}, took {}ms.", backupDir.getCanonicalPath(),
+                System.currentTimeMillis() - time);
+    }
+
+    /**
+     * Writes files from the queue into a zip, until the queue is empty. The zip is only created if it gets any file.
+     */
+    private static void writePart(File zipFile, Path worldDir, String dirName, Queue<Path> queue, int level,
+                                  Progress progress) throws IOException {
+        ZipOutputStream zip = null;
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            Path file;
+            while ((file = queue.poll()) != null) {
+                if (zip == null) {
+                    zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zipFile)));
+                    zip.setLevel(level);
+                }
+
+                var relative = worldDir.relativize(file).toString().replace(File.separatorChar, '/');
+                zip.putNextEntry(new ZipEntry(dirName + "/" + relative));
+                try (InputStream in = Files.newInputStream(file)) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        zip.write(buffer, 0, read);
+                        progress.add(read);
+                    }
+                }
+                zip.closeEntry();
+            }
+        } finally {
+            if (zip != null) zip.close();
+        }
+    }
+
+    /**
+     * Gets the files to back up, largest first, so the work is spread evenly between threads.
+     */
+    private static List<Path> getBackedUpFiles(Path worldDir) throws IOException {
+        try (Stream<Path> paths = Files.walk(worldDir)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter((path) -> isBackedUp(worldDir.relativize(path)))
+                    .sorted(Comparator.comparingLong((Path path) -> path.toFile().length()).reversed())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isBackedUp(Path relative) {
+        int count = relative.getNameCount();
+        if (count == 1) return BACKED_UP_ROOT_FILES.contains(relative.toString());
+
+        for (int i = 0; i < count - 1; i++) {
+            if (BACKED_UP_DIRS.contains(relative.getName(i).toString())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Logs progress every 10% of bytes backed up.
+     */
+    private static class Progress {
+
+        private final long total;
+        private final AtomicLong done = new AtomicLong();
+        private final AtomicInteger reportedStep = new AtomicInteger();
+
+        private Progress(long total) {
+            this.total = Math.max(1, total);
+        }
+
+        private void add(long bytes) {
+            long current = done.addAndGet(bytes);
+            int step = (int) (current * PROGRESS_STEPS / total);
+            int reported = reportedStep.get();
+            if (step <= reported || !reportedStep.compareAndSet(reported, step)) return;
+
+            NomiLabs.LOGGER.info("[World Backup] {}% ({}/{} MB)", step * 100 / PROGRESS_STEPS,
+                    current / BYTES_PER_MB, total / BYTES_PER_MB);
+        }
+    }
+}
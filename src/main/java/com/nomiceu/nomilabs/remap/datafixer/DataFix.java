@@ -1,15 +1,21 @@
 package com.nomiceu.nomilabs.remap.datafixer;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import javax.annotation.Nullable;
 
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.ResourceLocation;
 
 import com.nomiceu.nomilabs.remap.datafixer.storage.BlockStateLike;
 import com.nomiceu.nomilabs.remap.datafixer.storage.ItemStackLike;
 
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+
 public abstract class DataFix<T> {
 
     public final String name;
@@ -31,12 +37,55 @@ public abstract class DataFix<T> {
 
     public static class ItemFix extends DataFix<ItemStackLike> {
 
+        @Nullable
+        private Set<ResourceLocation> keyItems = null;
+        @Nullable
+        private Set<String> keyNamespaces = null;
+
         public ItemFix(String name, String description, boolean needsMode, Function<Integer, Boolean> validVersion,
                        Function<ItemStackLike, Boolean> validEntry, Consumer<ItemStackLike> transform) {
             super(name, description, needsMode, validVersion, validEntry, transform);
         }
+
+        /**
+         * Declares the only items this fix can apply to, so it is only checked against stacks of these items (or of
+         * any declared namespace). The valid entry check must be false for all other items!
+         */
+        public ItemFix forItems(Collection<ResourceLocation> items) {
+            if (keyItems == null) keyItems = new ObjectOpenHashSet<>();
+            keyItems.addAll(items);
+            return this;
+        }
+
+        public ItemFix forItems(ResourceLocation... items) {
+            return forItems(Arrays.asList(items));
+        }
+
+        /**
+         * Declares the only namespaces this fix can apply to, so it is only checked against stacks of items in these
+         * namespaces (or of any declared item). The valid entry check must be false for all other items!
+         */
+        public ItemFix forNamespaces(String... namespaces) {
+            if (keyNamespaces == null) keyNamespaces = new ObjectOpenHashSet<>();
+            keyNamespaces.addAll(Arrays.asList(namespaces));
+            return this;
+        }
+
+        /**
+         * Whether this fix may apply to stacks of this item, according to its declared items and namespaces.
+         * Fixes without any declared items or namespaces may apply to any item.
+         */
+        public boolean mayApplyTo(ResourceLocation rl) {
+            if (keyItems == null && keyNamespaces == null) return true;
+            return (keyItems != null && keyItems.contains(rl)) ||
+                    (keyNamespaces != null && keyNamespaces.contains(rl.getNamespace()));
+        }
     }
 
+    /**
+     * The valid entry check must only depend on the block's rl and meta, as its results are compiled into a
+     * {@link com.nomiceu.nomilabs.remap.datafixer.fixes.BlockFixTable} per world.
+     */
     public static class BlockFix extends DataFix<BlockStateLike> {
 
         public final boolean teNeeded;
@@ -4,7 +4,6 @@ import static com.nomiceu.nomilabs.remap.LabsMessageHelper.*;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
@@ -29,12 +28,15 @@ import net.minecraftforge.registries.ForgeRegistry;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.groovy.util.Arrays;
+import org.jetbrains.annotations.Nullable;
 
 import com.nomiceu.nomilabs.LabsValues;
 import com.nomiceu.nomilabs.NomiLabs;
+import com.nomiceu.nomilabs.config.LabsConfig;
 import com.nomiceu.nomilabs.config.LabsVersionConfig;
 import com.nomiceu.nomilabs.mixinhelper.RemappableForgeRegistry;
 import com.nomiceu.nomilabs.remap.LabsRemapHelper;
+import com.nomiceu.nomilabs.remap.datafixer.fixes.BlockFixTable;
 import com.nomiceu.nomilabs.remap.datafixer.fixes.BlockFixer;
 import com.nomiceu.nomilabs.remap.datafixer.fixes.ItemFixer;
 import com.nomiceu.nomilabs.remap.datafixer.fixes.TileEntityFixer;
@@ -68,6 +70,9 @@ public class DataFixerHandler {
 
     private static String savedLabsVersion;
 
+    /* Reported Fix Version that all chunks were fixed to by the Offline World Fixer */
+    private static int offlineFixVersion = LabsWorldFixData.NO_OFFLINE_FIX;
+
     /*
      * Must be split up so that idToBlockMap has remapped info
      * (Remapped Info from ForgeRegistry & Snapshot & Game Data Mixins)
@@ -76,6 +81,23 @@ public class DataFixerHandler {
     private static Map<Integer, ResourceLocation> idToBlockMap;
     private static Map<ResourceLocation, Integer> blockToIdMap;
 
+    /*
+     * Array forms of the above, indexed by the (up to 12 bit) block ids stored in chunk sections.
+     * The current id table maps an id to the id of the block it resolves to, or the id itself if that block is not
+     * registered.
+     */
+    private static ResourceLocation[] idToBlockTable;
+    private static int[] idToCurrentIdTable;
+
+    /* Block Fixes compiled against this world's block ids */
+    private static BlockFixTable blockFixTable;
+
+    /* Amount of block ids that can be stored in a chunk section (8 bits Blocks + 4 bits Add) */
+    public static final int SECTION_ID_COUNT = 1 << 12;
+
+    /* Key in each chunk's Level tag, storing the Reported Fix Version that chunk was fixed to */
+    public static final String CHUNK_FIX_VERSION_KEY = "LabsFixVersion";
+
     public static void preInit() {
         CompoundDataFixer fmlFixer = FMLCommonHandler.instance().getDataFixer();
 
@@ -103,6 +125,10 @@ public class DataFixerHandler {
         fixAvailable = true;
         idToBlockMap = null;
         blockToIdMap = null;
+        idToBlockTable = null;
+        idToCurrentIdTable = null;
+        blockFixTable = null;
+        offlineFixVersion = LabsWorldFixData.NO_OFFLINE_FIX;
 
         NomiLabs.LOGGER.info("Checking Data Fixers...");
 
@@ -114,6 +140,7 @@ public class DataFixerHandler {
 
         if (mapFile.exists()) {
             DataFixerHandler.worldSavedData = LabsWorldFixData.load(mapFile);
+            offlineFixVersion = DataFixerHandler.worldSavedData.offlineFixVersion;
 
             // Check if manual fix version has been decremented
             // This could break things, so throw an exception
@@ -282,29 +309,87 @@ public class DataFixerHandler {
         return blockToIdMap;
     }
 
-    public static void processEnderStorageInfo(DataFixer fixer, SaveHandler save) {
-        NomiLabs.LOGGER.info("Processing Ender Storage Info...");
+    /**
+     * Array form of {@link #getIdToBlockMap()}. Is at least {@link #SECTION_ID_COUNT} long, and entries are null for
+     * ids without a block.
+     */
+    public static ResourceLocation[] getIdToBlockTable() {
+        if (idToBlockTable != null) return idToBlockTable;
 
-        // Ender Storage Fixes
-        // Ender Storage Stores Data in data1.dat and data2.dat. Sometimes its only data1.dat.
-        // lock.dat stores a byte, which has weird bitwise stuff done to it, to determine which file (data1.dat or
-        // data2.dat) to read.
-        var enderStorageDir = new File(save.getWorldDirectory(), "EnderStorage");
-        String[] processFiles = new String[] { "data1.dat", "data2.dat" };
-        for (var toProcess : processFiles) {
-            File processFile = new File(enderStorageDir, toProcess);
-            if (!processFile.isFile()) continue; // Also checks if it exists
-            try {
-                var fileNbt = CompressedStreamTools.readCompressed(new FileInputStream(processFile));
-                var newNbt = fixer.process(LabsFixTypes.WalkerTypes.ENDER_STORAGE, fileNbt);
-
-                var fileOut = new FileOutputStream(processFile);
-                CompressedStreamTools.writeCompressed(newNbt, fileOut);
-                NomiLabs.LOGGER.info("Successfully wrote {} Ender Storage Save Data!", toProcess);
-            } catch (IOException e) {
-                throw new IllegalStateException("Failed to read or write Ender Storage save data!", e);
-            }
+        var idToBlock = getIdToBlockMap();
+        int length = SECTION_ID_COUNT;
+        for (int id : idToBlock.keySet()) {
+            length = Math.max(length, id + 1);
         }
+
+        var blockTable = new ResourceLocation[length];
+        var currentIdTable = new int[length];
+        var blockToId = getBlockToIdMap();
+        for (int id = 0; id < length; id++) {
+            var rl = idToBlock.get(id);
+            blockTable[id] = rl;
+            currentIdTable[id] = rl == null ? id : blockToId.getOrDefault(rl, id);
+        }
+
+        idToCurrentIdTable = currentIdTable;
+        idToBlockTable = blockTable;
+        return idToBlockTable;
+    }
+
+    /**
+     * Gets the id an unchanged block, stored with the given id, should be saved as. Same length as
+     * {@link #getIdToBlockTable()}.
+     */
+    public static int[] getIdToCurrentIdTable() {
+        if (idToCurrentIdTable == null) getIdToBlockTable();
+        return idToCurrentIdTable;
+    }
+
+    @Nullable
+    public static ResourceLocation getIdToBlock(int id) {
+        var table = getIdToBlockTable();
+        if (id < 0 || id >= table.length) return null;
+        return table[id];
+    }
+
+    /**
+     * The Block Fix Table is compiled once needed, as it depends on the Id to Block Table.
+     */
+    public static BlockFixTable getBlockFixTable() {
+        if (blockFixTable != null) return blockFixTable;
+        blockFixTable = BlockFixTable.compile(LabsFixes.fixes.get(LabsFixTypes.FixerTypes.CHUNK), getIdToBlockTable(),
+                getIdToCurrentIdTable());
+        return blockFixTable;
+    }
+
+    /**
+     * Runs the Offline World Fixer, if enabled, and if not all chunks have been fixed to the current version yet.
+     * <p>
+     * Only runs when this world needs new fixes, and these have been confirmed and a backup created (same as the fixes
+     * applied as each chunk loads). Otherwise, chunks are left to be fixed (if needed) as they load.
+     * <p>
+     * Called after the world's registry snapshot has been loaded, but before any chunks are loaded.
+     */
+    public static void processOfflineFixes(SaveHandler save) {
+        if (!LabsConfig.advanced.enableOfflineDataFixes || fixNotAvailable() || !checked || hasNoNewFixes() ||
+                chunksFixedOffline())
+            return;
+
+        NomiLabs.LOGGER.info("Applying Data Fixes to all chunks...");
+        if (!OfflineWorldFixer.fixWorld(save)) return;
+
+        offlineFixVersion = LabsRemapHelper.getReportedVersion();
+
+        // Saves the current fix version, and the offline fix version
+        var data = new LabsWorldFixData();
+        data.offlineFixVersion = offlineFixVersion;
+        LabsWorldFixData.save(save.getMapFileFromName(LabsFixes.DATA_NAME), data);
+        NomiLabs.LOGGER.info("Finished Applying Data Fixes to all chunks!");
+    }
+
+    public static void processEnderStorageInfo(DataFixer fixer, SaveHandler save) {
+        NomiLabs.LOGGER.info("Processing Ender Storage Info...");
+        EnderStorageFixer.fixEnderStorage(fixer, save);
         NomiLabs.LOGGER.info("Finished Processing Ender Storage Info!");
     }
 
@@ -316,6 +401,33 @@ public class DataFixerHandler {
         return !fixAvailable;
     }
 
+    /**
+     * Whether every chunk of this world has already been fixed to the current version by the Offline World Fixer.
+     */
+    public static boolean chunksFixedOffline() {
+        return offlineFixVersion == LabsRemapHelper.getReportedVersion();
+    }
+
+    /**
+     * Whether this chunk has already been fixed to the current version, according to its own fix version stamp.
+     */
+    public static boolean chunkUpToDate(NBTTagCompound chunk) {
+        var level = chunk.getCompoundTag("Level");
+        return level.hasKey(CHUNK_FIX_VERSION_KEY, Constants.NBT.TAG_ANY_NUMERIC) &&
+                level.getInteger(CHUNK_FIX_VERSION_KEY) >= LabsRemapHelper.getReportedVersion();
+    }
+
+    /**
+     * Stamps this chunk with the current fix version. Only call this once the chunk has been fixed!
+     * <p>
+     * Vanilla rebuilds the Level tag whenever a chunk is saved, so chunks are also stamped as they are saved, as any
+     * chunk being saved was fixed when it loaded.
+     */
+    public static void stampChunk(NBTTagCompound chunk) {
+        if (fixNotAvailable() || !chunk.hasKey("Level", Constants.NBT.TAG_COMPOUND)) return;
+        chunk.getCompoundTag("Level").setInteger(CHUNK_FIX_VERSION_KEY, LabsRemapHelper.getReportedVersion());
+    }
+
     public static void close() {
         worldSavedData = null;
         checked = false;
@@ -323,5 +435,9 @@ public class DataFixerHandler {
         neededNewFixes = null;
         idToBlockMap = null;
         blockToIdMap = null;
+        idToBlockTable = null;
+        idToCurrentIdTable = null;
+        blockFixTable = null;
+        offlineFixVersion = LabsWorldFixData.NO_OFFLINE_FIX;
     }
 }
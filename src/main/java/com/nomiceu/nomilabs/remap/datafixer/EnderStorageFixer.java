@@ -0,0 +1,120 @@
+package com.nomiceu.nomilabs.remap.datafixer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.datafix.DataFixer;
+import net.minecraft.world.storage.SaveHandler;
+import net.minecraftforge.common.util.Constants;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.nomiceu.nomilabs.NomiLabs;
+import com.nomiceu.nomilabs.remap.datafixer.types.LabsFixTypes;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Applies the Labs Fixes to Ender Storage's save data.
+ * <p>
+ * Ender Storage saves every frequency as its own entry of one compound. Each entry is fixed independently, on worker
+ * threads. The fixed data is then written to a temporary file, which is moved over the original, so the original is
+ * never left partially written.
+ */
+public class EnderStorageFixer {
+
+    /*
+     * Ender Storage Stores Data in data1.dat and data2.dat. Sometimes its only data1.dat.
+     * lock.dat stores a byte, which has weird bitwise stuff done to it, to determine which file (data1.dat or
+     * data2.dat) to read.
+     */
+    private static final String[] DATA_FILES = new String[] { "data1.dat", "data2.dat" };
+    private static final String DATA_DIR = "EnderStorage";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    public static void fixEnderStorage(DataFixer fixer, @NotNull SaveHandler save) {
+        var enderStorageDir = new File(save.getWorldDirectory(), DATA_DIR);
+        for (var toProcess : DATA_FILES) {
+            File processFile = new File(enderStorageDir, toProcess);
+            if (!processFile.isFile()) continue; // Also checks if it exists
+            try {
+                var time = System.currentTimeMillis();
+                int entries = fixFile(fixer, processFile);
+                NomiLabs.LOGGER.info("Successfully wrote {} Ender Storage Save Data! ({} frequencies, took {}ms)",
+                        toProcess, entries, System.currentTimeMillis() - time);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read or write Ender Storage save data!", e);
+            }
+        }
+    }
+
+    /**
+     * Fixes and rewrites a data file.
+     *
+     * @return The amount of frequency entries fixed.
+     */
+    private static int fixFile(DataFixer fixer, File file) throws IOException {
+        NBTTagCompound data;
+        try (InputStream in = new FileInputStream(file)) {
+            data = CompressedStreamTools.readCompressed(in);
+        }
+
+        List<String> keys = new ObjectArrayList<>();
+        for (var key : data.getKeySet()) {
+            if (data.hasKey(key, Constants.NBT.TAG_COMPOUND)) keys.add(key);
+        }
+
+        if (!keys.isEmpty()) {
+            ExecutorService executor = OfflineWorldFixer.newWorkerPool("Labs Ender Storage Fixer",
+                    OfflineWorldFixer.getThreads(keys.size()));
+            try {
+                // Each worker only touches its own entry, results are set back on this thread
+                List<Future<NBTTagCompound>> futures = new ObjectArrayList<>(keys.size());
+                for (var key : keys) {
+                    var entry = data.getCompoundTag(key);
+                    futures.add(executor.submit(() -> fixer.process(LabsFixTypes.WalkerTypes.ENDER_STORAGE, entry)));
+                }
+                for (int i = 0; i < keys.size(); i++) {
+                    data.setTag(keys.get(i), futures.get(i).get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while fixing Ender Storage save data!", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to fix Ender Storage save data!", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        writeAtomically(data, file);
+        return keys.size();
+    }
+
+    private static void writeAtomically(NBTTagCompound data, File file) throws IOException {
+        var temp = new File(file.getParentFile(), file.getName() + TEMP_SUFFIX);
+        try (OutputStream out = new FileOutputStream(temp)) {
+            CompressedStreamTools.writeCompressed(data, out);
+        }
+
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
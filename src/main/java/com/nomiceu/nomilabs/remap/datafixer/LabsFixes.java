@@ -23,6 +23,7 @@ import com.nomiceu.nomilabs.item.ItemInfo;
 import com.nomiceu.nomilabs.item.registry.LabsItems;
 import com.nomiceu.nomilabs.remap.LabsRemapHelper;
 import com.nomiceu.nomilabs.remap.LabsRemappers;
+import com.nomiceu.nomilabs.remap.datafixer.fixes.ItemFixIndex;
 import com.nomiceu.nomilabs.remap.datafixer.storage.ItemStackLike;
 import com.nomiceu.nomilabs.remap.datafixer.types.LabsFixTypes;
 import com.nomiceu.nomilabs.util.LabsModeHelper;
@@ -117,6 +118,8 @@ public class LabsFixes {
 
     public static List<DataFix.ItemFix> itemFixes;
 
+    public static ItemFixIndex itemFixIndex;
+
     public static List<DataFix.BlockFix> blockFixes;
 
     public static List<DataFix.TileEntityFix> tileEntityFixes;
@@ -163,8 +166,11 @@ public class LabsFixes {
          * (stack) -> stack.rl.equals(new ResourceLocation("minecraft:apple")), // Input ItemStackLike, return a boolean
          * (true to fix, false to skip)
          *
-         * (stack) -> stack.setRl(new ResourceLocation("minecraft:skull")).setMeta((short) 4))); // Change the given
+         * (stack) -> stack.setRl(new ResourceLocation("minecraft:skull")).setMeta((short) 4)) // Change the given
          * ItemStackLike (Changes to Creeper Head in this case)
+         *
+         * .forItems(new ResourceLocation("minecraft:apple"))); // Optional. The only items (or, via forNamespaces,
+         * namespaces) this fix can apply to. Fixes are then only checked against stacks of those items.
          */
         itemFixes = new ObjectArrayList<>();
 
@@ -180,7 +186,7 @@ public class LabsFixes {
                         (stack) -> stack.rl.equals(new ResourceLocation(CONTENTTWEAKER_MODID, "dark_red_coal")),
                         (stack) -> stack.setRl(new ResourceLocation(XU2_MODID, "ingredients"))
                                 .setMeta((short) 4)) // Red Coal
-        );
+                .forItems(new ResourceLocation(CONTENTTWEAKER_MODID, "dark_red_coal")));
 
         if (Loader.isModLoaded(ENDER_IO_MODID))
             itemFixes.add(
@@ -193,7 +199,8 @@ public class LabsFixes {
                                     capacitorSpecificationRemap.containsKey(stack.rl.getPath()) &&
                                     capacitorSpecificationRemap.get(stack.rl.getPath()).needChange(stack.tag),
                             (stack) -> stack
-                                    .setTag(capacitorSpecificationRemap.get(stack.rl.getPath()).remove(stack.tag))));
+                                    .setTag(capacitorSpecificationRemap.get(stack.rl.getPath()).remove(stack.tag)))
+                    .forNamespaces(LABS_MODID, CONTENTTWEAKER_MODID));
 
         itemFixes.add(
                 new DataFix.ItemFix("Deprecated Item Remap",
@@ -201,7 +208,8 @@ public class LabsFixes {
                         false,
                         (version) -> version <= DEFAULT,
                         (stack) -> LabsRemappers.deprecatedRemapper.shouldRemap(stack.rl),
-                        (stack) -> stack.setRl(LabsRemappers.deprecatedRemapper.remapRl(stack.rl))));
+                        (stack) -> stack.setRl(LabsRemappers.deprecatedRemapper.remapRl(stack.rl)))
+                .forItems(LabsRemappers.deprecationRemap.keySet()));
 
         itemFixes.add(
                 new DataFix.ItemFix("Content Tweaker Item Remap",
@@ -209,7 +217,8 @@ public class LabsFixes {
                         false,
                         (version) -> version <= DEFAULT,
                         (stack) -> LabsRemappers.ctRemapper.shouldRemap(stack.rl),
-                        (stack) -> stack.setRl(LabsRemappers.ctRemapper.remapRl(stack.rl))));
+                        (stack) -> stack.setRl(LabsRemappers.ctRemapper.remapRl(stack.rl)))
+                .forNamespaces(CONTENTTWEAKER_MODID));
 
         itemFixes.add(
                 new DataFix.ItemFix("Perfect Gem Item Remap",
@@ -217,7 +226,8 @@ public class LabsFixes {
                         false,
                         (version) -> version <= DEFAULT,
                         (stack) -> LabsRemappers.perfectGemRemapper.shouldRemap(stack.rl),
-                        (stack) -> stack.setRl(LabsRemappers.perfectGemRemapper.remapRl(stack.rl))));
+                        (stack) -> stack.setRl(LabsRemappers.perfectGemRemapper.remapRl(stack.rl)))
+                .forNamespaces(DEVTECH_MODID));
 
         if (LabsConfig.modIntegration.enableExtraUtils2Integration)
             itemFixes.add(
@@ -231,7 +241,8 @@ public class LabsFixes {
                                 var tag = Objects.requireNonNull(stack.tag);
                                 tag.removeTag("Freq");
                                 stack.setTag(tag);
-                            }));
+                            })
+                    .forItems(new ResourceLocation(XU2_MODID, "ingredients")));
 
         itemFixes.add(
                 new DataFix.ItemFix("Old Multiblock Metadata Remap",
@@ -240,7 +251,8 @@ public class LabsFixes {
                         (version) -> version <= DEFAULT_NOMI_CEU,
                         (stack) -> stack.rl.equals(new ResourceLocation(GREGTECH_MODID, "machine")) &&
                                 multiblockMetaRemap.containsKey(stack.meta),
-                        (stack) -> stack.setMeta(multiblockMetaRemap.get(stack.meta))));
+                        (stack) -> stack.setMeta(multiblockMetaRemap.get(stack.meta)))
+                .forItems(new ResourceLocation(GREGTECH_MODID, "machine")));
 
         itemFixes.add(
                 new DataFix.ItemFix("Material Meta Item Remap",
@@ -252,7 +264,8 @@ public class LabsFixes {
                                 !LabsRemapHelper.META_BLOCK_MATCHER.matcher(stack.rl.getPath()).matches() &&
                                 stack.meta >= LabsRemapHelper.MIN_META_ITEM_BASE_ID,
                         (stack) -> stack.setMeta((short) (stack.meta - LabsRemapHelper.MIN_META_ITEM_BASE_ID))
-                                .setRl(makeLabsName(stack.rl.getPath()))));
+                                .setRl(makeLabsName(stack.rl.getPath())))
+                .forNamespaces(GREGTECH_MODID));
 
         itemFixes.add(
                 new DataFix.ItemFix("Material Meta Blocks' Item Forms Remap",
@@ -270,7 +283,8 @@ public class LabsFixes {
                         (stack) -> specialMetaItemsRemap.contains(stack.rl) &&
                                 stack.meta >= LabsRemapHelper.MIN_META_ITEM_BASE_ID,
                         (stack) -> stack.setMeta((short) (stack.meta - LabsRemapHelper.MIN_META_ITEM_BASE_ID))
-                                .setRl(makeLabsName(stack.rl.getPath()))));
+                                .setRl(makeLabsName(stack.rl.getPath())))
+                .forItems(specialMetaItemsRemap));
 
         if (Loader.isModLoaded(AE2_STUFF_MODID))
             itemFixes.add(
@@ -280,7 +294,8 @@ public class LabsFixes {
                             (version) -> version <= PRE_AE2_STUFF_REMAP || version == NEW,
                             (stack) -> stack.rl.getNamespace().equals(AE2_STUFF_MODID) &&
                                     stack.rl.getPath().equals("encoder"),
-                            (stack) -> stack.setRl(new ResourceLocation(AE2_MODID, "interface"))));
+                            (stack) -> stack.setRl(new ResourceLocation(AE2_MODID, "interface")))
+                    .forItems(new ResourceLocation(AE2_STUFF_MODID, "encoder")));
 
         /*
          * Block Fixes.
@@ -311,7 +326,7 @@ public class LabsFixes {
          *
          * (state) -> state.rl.equals(new ResourceLocation("minecraft:log")) && state.meta == 0,
          * // Input BlockStateLike, return a boolean (true to fix, false to skip). You CAN NOT check the tile entity
-         * here!
+         * here! Only check the rl and meta, as the results are compiled into a table for each block id and meta.
          *
          * null, // Secondary check, Input BlockStateLike, return a boolean (true to fix, false to skip). You CAN check
          * // the tile entity here! Input Null if checking tile entity is not needed.
@@ -486,6 +501,8 @@ public class LabsFixes {
                         (compound -> compound.setString("MetaId", multiblockMetaIdRemap
                                 .get(new ResourceLocation(compound.getString("MetaId"))).toString()))));
 
+        itemFixIndex = new ItemFixIndex(itemFixes);
+
         fixes = new Object2ObjectOpenHashMap<>();
         fixes.put(LabsFixTypes.FixerTypes.ITEM, itemFixes);
         fixes.put(LabsFixTypes.FixerTypes.CHUNK, blockFixes);
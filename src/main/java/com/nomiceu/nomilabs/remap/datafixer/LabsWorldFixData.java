@@ -22,6 +22,9 @@ public class LabsWorldFixData extends WorldSavedData {
     public int savedFixVersion;
     public int savedManualFixVersion;
 
+    // Reported Fix Version that all chunks of this world were fixed to, by the Offline World Fixer.
+    public int offlineFixVersion;
+
     // Base Data Key
     public static final String BASE_DATA_KEY = "data";
 
@@ -31,6 +34,12 @@ public class LabsWorldFixData extends WorldSavedData {
     // Key used to store manual fix version. Used for log status messages.
     public static final String MANUAL_VERSION_KEY = "ManualVersion";
 
+    // Key used to store the reported fix version applied to all chunks by the Offline World Fixer.
+    public static final String OFFLINE_VERSION_KEY = "OfflineVersion";
+
+    // Offline Fix Version used if the Offline World Fixer has never completed on this world.
+    public static final int NO_OFFLINE_FIX = -1;
+
     public LabsWorldFixData() {
         super(LabsFixes.DATA_NAME);
 
@@ -38,6 +47,7 @@ public class LabsWorldFixData extends WorldSavedData {
         else savedFixVersion = LabsFixes.DEFAULT;
 
         savedManualFixVersion = 0;
+        offlineFixVersion = NO_OFFLINE_FIX;
     }
 
     public void processSavedLabsVersion(String savedLabsVersion) {
@@ -61,6 +71,9 @@ public class LabsWorldFixData extends WorldSavedData {
         } else
             NomiLabs.LOGGER.info("This world was saved without a Manual Fix Version. Defaulting to {}.",
                     savedManualFixVersion);
+
+        if (nbt.hasKey(OFFLINE_VERSION_KEY, Constants.NBT.TAG_ANY_NUMERIC))
+            offlineFixVersion = nbt.getInteger(OFFLINE_VERSION_KEY);
     }
 
     @Override
@@ -68,6 +81,7 @@ public class LabsWorldFixData extends WorldSavedData {
         compound.setInteger(VERSION_KEY, LabsFixes.CURRENT); // Save the current fix version, not the saved version
         compound.setInteger(MANUAL_VERSION_KEY, LabsVersionConfig.manualFixVersion); // Save current manual fix version,
                                                                                      // not the saved manual version
+        compound.setInteger(OFFLINE_VERSION_KEY, offlineFixVersion);
         return compound;
     }
 
@@ -0,0 +1,247 @@
+package com.nomiceu.nomilabs.remap.datafixer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.datafix.IDataFixer;
+import net.minecraft.world.chunk.storage.RegionFile;
+import net.minecraft.world.storage.SaveHandler;
+import net.minecraftforge.common.util.Constants;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.nomiceu.nomilabs.LabsValues;
+import com.nomiceu.nomilabs.NomiLabs;
+import com.nomiceu.nomilabs.config.LabsConfig;
+import com.nomiceu.nomilabs.remap.LabsRemapHelper;
+import com.nomiceu.nomilabs.remap.datafixer.fixes.BlockFixer;
+import com.nomiceu.nomilabs.remap.datafixer.fixes.ItemFixer;
+import com.nomiceu.nomilabs.remap.datafixer.fixes.TileEntityFixer;
+import com.nomiceu.nomilabs.remap.datafixer.types.LabsFixTypes;
+import com.nomiceu.nomilabs.remap.datafixer.walker.BlockEntityWalker;
+import com.nomiceu.nomilabs.remap.datafixer.walker.ChunkWalker;
+import com.nomiceu.nomilabs.remap.datafixer.walker.ItemStackWalker;
+
+/**
+ * Applies the Labs Item, Block and Tile Entity Fixes to every chunk of a world, before the world starts, instead of
+ * lazily as each chunk loads.
+ * <p>
+ * Every region file, of every dimension, is fixed by its own task, and tasks are run in parallel. Only the Labs fixes
+ * are applied; fixes of other mods are still applied as chunks load. Each fixed chunk has its Labs entry in
+ * {@code ForgeDataVersion} stamped, so Forge does not apply the Labs fixes to it again, and its own fix version
+ * stamped, so an interrupted run resumes where it stopped. Once every chunk has been fixed, {@link LabsWorldFixData}
+ * is stamped, and the Chunk Walker is skipped entirely from then on.
+ * <p>
+ * This must run after the world's registry snapshot has been loaded, so block ids match the world, and before any
+ * chunk is loaded.
+ */
+public class OfflineWorldFixer {
+
+    private static final Pattern REGION_FILE = Pattern.compile("r\\.-?\\d+\\.-?\\d+\\.mca");
+    private static final String REGION_DIR = "region";
+    private static final String FORGE_VERSION_KEY = "ForgeDataVersion";
+    private static final int REGION_SIZE = 32;
+
+    private static final ItemStackWalker ITEM_WALKER = new ItemStackWalker();
+    private static final BlockEntityWalker BLOCK_ENTITY_WALKER = new BlockEntityWalker(ITEM_WALKER);
+    private static final ChunkWalker CHUNK_WALKER = new ChunkWalker();
+
+    private static final ItemFixer ITEM_FIXER = new ItemFixer();
+    private static final BlockFixer BLOCK_FIXER = new BlockFixer();
+    private static final TileEntityFixer TILE_ENTITY_FIXER = new TileEntityFixer();
+
+    /**
+     * Dispatches the Labs Fix Types directly to the Labs Fixers, without going through Forge's Compound Data Fixer,
+     * which would apply the fixes of every other mod too.
+     */
+    private static final IDataFixer LABS_FIXER = (type, compound, versionIn) -> {
+        if (type == LabsFixTypes.FixerTypes.ITEM) return ITEM_FIXER.fixTagCompound(compound);
+        if (type == LabsFixTypes.FixerTypes.CHUNK) return BLOCK_FIXER.fixTagCompound(compound);
+        if (type == LabsFixTypes.FixerTypes.TILE_ENTITY) return TILE_ENTITY_FIXER.fixTagCompound(compound);
+        return compound;
+    };
+
+    /**
+     * Fixes all chunks of the world.
+     *
+     * @return Whether every chunk was read, fixed and written successfully.
+     */
+    public static boolean fixWorld(@NotNull SaveHandler save) {
+        var time = System.currentTimeMillis();
+        int version = LabsRemapHelper.getReportedVersion();
+
+        List<File> regions;
+        try {
+            regions = getRegionFiles(save.getWorldDirectory());
+        } catch (IOException e) {
+            NomiLabs.LOGGER.error("[Offline Fixer] Failed to list region files. Chunks will be fixed as they load.", e);
+            return false;
+        }
+        if (regions.isEmpty()) return true;
+
+        // Generate the lazily built id maps and tables now, instead of racing to generate them in the workers
+        DataFixerHandler.getBlockFixTable();
+
+        int threads = getThreads(regions.size());
+        NomiLabs.LOGGER.info("[Offline Fixer] Fixing {} region files, with {} threads...", regions.size(), threads);
+
+        var fixed = new AtomicInteger();
+        var skipped = new AtomicInteger();
+        var failed = new AtomicInteger();
+        ExecutorService executor = newWorkerPool("Labs Offline World Fixer", threads);
+
+        try {
+            List<Future<?>> futures = regions.stream()
+                    .map((region) -> executor.submit(() -> fixRegion(region, version, fixed, skipped, failed)))
+                    .collect(Collectors.toList());
+            for (var future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            NomiLabs.LOGGER.error("[Offline Fixer] Interrupted. Remaining chunks will be fixed as they load.");
+            return false;
+        } catch (ExecutionException e) {
+            NomiLabs.LOGGER.error("[Offline Fixer] A worker failed. Remaining chunks will be fixed as they load.",
+                    e.getCause());
+            return false;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        NomiLabs.LOGGER.info("[Offline Fixer] Fixed {} chunks, skipped {} up to date chunks, in {}ms.",
+                fixed.get(), skipped.get(), System.currentTimeMillis() - time);
+        if (failed.get() == 0) return true;
+
+        NomiLabs.LOGGER.error("[Offline Fixer] Failed to fix {} chunks. They will be fixed as they load.",
+                failed.get());
+        return false;
+    }
+
+    /**
+     * Gets the amount of worker threads to use, from the config, for the given amount of tasks.
+     */
+    public static int getThreads(int tasks) {
+        int threads = LabsConfig.advanced.offlineDataFixThreads;
+        if (threads <= 0) threads = Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(threads, tasks));
+    }
+
+    /**
+     * Creates a fixed pool of daemon worker threads. Shut it down once done!
+     */
+    public static ExecutorService newWorkerPool(String name, int threads) {
+        var threadId = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, (runnable) -> {
+            var thread = new Thread(runnable, name + " #" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static void fixRegion(File file, int version, AtomicInteger fixed, AtomicInteger skipped,
+                                  AtomicInteger failed) {
+        var region = new RegionFile(file);
+        try {
+            for (int x = 0; x < REGION_SIZE; x++) {
+                for (int z = 0; z < REGION_SIZE; z++) {
+                    try {
+                        switch (fixChunk(region, x, z, version)) {
+                            case FIXED -> fixed.incrementAndGet();
+                            case SKIPPED -> skipped.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        NomiLabs.LOGGER.error("[Offline Fixer] Failed to fix chunk {}, {} in region file {}.", x, z,
+                                file, e);
+                    }
+                }
+            }
+        } finally {
+            try {
+                region.close();
+            } catch (IOException e) {
+                NomiLabs.LOGGER.error("[Offline Fixer] Failed to close region file {}.", file, e);
+            }
+        }
+    }
+
+    private static ChunkResult fixChunk(RegionFile region, int x, int z, int version) throws IOException {
+        NBTTagCompound chunk;
+        try (DataInputStream in = region.getChunkDataInputStream(x, z)) {
+            if (in == null) return ChunkResult.EMPTY;
+            chunk = CompressedStreamTools.read(in);
+        }
+
+        // Chunks fixed by an earlier, interrupted run, or already loaded since the last fix version change
+        var forgeVersions = chunk.getCompoundTag(FORGE_VERSION_KEY);
+        if (DataFixerHandler.chunkUpToDate(chunk) ||
+                (forgeVersions.hasKey(LabsValues.LABS_MODID, Constants.NBT.TAG_ANY_NUMERIC) &&
+                        forgeVersions.getInteger(LabsValues.LABS_MODID) >= version))
+            return ChunkResult.SKIPPED;
+
+        chunk = fixChunk(chunk, chunk.getInteger("DataVersion"));
+
+        forgeVersions.setInteger(LabsValues.LABS_MODID, version);
+        chunk.setTag(FORGE_VERSION_KEY, forgeVersions);
+        DataFixerHandler.stampChunk(chunk);
+
+        try (DataOutputStream out = region.getChunkDataOutputStream(x, z)) {
+            CompressedStreamTools.write(chunk, out);
+        }
+        return ChunkResult.FIXED;
+    }
+
+    /**
+     * Applies the Labs fixes in the same order as when a chunk is loaded: Entities and Tile Entities (via Vanilla's
+     * Chunk Walker), then Blocks.
+     */
+    private static NBTTagCompound fixChunk(NBTTagCompound chunk, int versionIn) {
+        var level = chunk.getCompoundTag("Level");
+
+        NBTTagList entities = level.getTagList("Entities", Constants.NBT.TAG_COMPOUND);
+        for (int i = 0; i < entities.tagCount(); i++) {
+            entities.set(i, ITEM_WALKER.process(LABS_FIXER, entities.getCompoundTagAt(i), versionIn));
+        }
+
+        NBTTagList tileEntities = level.getTagList("TileEntities", Constants.NBT.TAG_COMPOUND);
+        for (int i = 0; i < tileEntities.tagCount(); i++) {
+            tileEntities.set(i, BLOCK_ENTITY_WALKER.process(LABS_FIXER, tileEntities.getCompoundTagAt(i), versionIn));
+        }
+
+        return CHUNK_WALKER.process(LABS_FIXER, chunk, versionIn);
+    }
+
+    private static List<File> getRegionFiles(File worldDir) throws IOException {
+        try (Stream<Path> paths = Files.walk(worldDir.toPath())) {
+            return paths.filter(Files::isRegularFile)
+                    .filter((path) -> path.getParent() != null &&
+                            REGION_DIR.equals(path.getParent().getFileName().toString()))
+                    .filter((path) -> REGION_FILE.matcher(path.getFileName().toString()).matches())
+                    .map(Path::toFile)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private enum ChunkResult {
+        FIXED,
+        SKIPPED,
+        EMPTY
+    }
+}
@@ -0,0 +1,149 @@
+package com.nomiceu.nomilabs.remap.datafixer.fixes;
+
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.util.ResourceLocation;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.nomiceu.nomilabs.NomiLabs;
+import com.nomiceu.nomilabs.remap.datafixer.DataFix;
+import com.nomiceu.nomilabs.remap.datafixer.storage.BlockIdBitmap;
+import com.nomiceu.nomilabs.remap.datafixer.storage.BlockStateLike;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+
+/**
+ * Dense table of the Block Fixes whose {@link DataFix#validEntry} matches each block id and meta.
+ * <p>
+ * Compiled once per world, after block ids are known, by evaluating every valid entry check against every id and
+ * meta. Looking up the candidate fixes of a block is then a single array access, regardless of how many fixes exist.
+ * <p>
+ * Candidates only hold for the block's original id and meta; once a fix changes a block, the remaining fixes must be
+ * checked directly. Fixes whose valid entry check threw whilst compiling (e.g. as it needs the position) are kept as
+ * candidates, but must also be checked directly (see {@link #needsCheck(int)}).
+ * <p>
+ * Also holds a bitmap of the ids that must be rewritten (targeted by a fix, or stored with a remapped id), so sections
+ * without any of them can be skipped.
+ */
+public class BlockFixTable {
+
+    private static final int[] NONE = new int[0];
+
+    private final DataFix.BlockFix[] fixes;
+    private final int[] all;
+    private final int[][] candidates;
+    private final boolean[] needsCheck;
+    private final BlockIdBitmap rewrittenIds;
+
+    private BlockFixTable(DataFix.BlockFix[] fixes, int[][] candidates, boolean[] needsCheck,
+                          BlockIdBitmap rewrittenIds) {
+        this.fixes = fixes;
+        this.candidates = candidates;
+        this.needsCheck = needsCheck;
+        this.rewrittenIds = rewrittenIds;
+        this.all = new int[fixes.length];
+        for (int i = 0; i < fixes.length; i++) {
+            all[i] = i;
+        }
+    }
+
+    /**
+     * Gets all fixes, in the order they should be applied. Candidates are indices into this array.
+     */
+    public DataFix.BlockFix[] getFixes() {
+        return fixes;
+    }
+
+    /**
+     * Gets the indices, in ascending order, of the fixes whose valid entry check matches this id and meta.
+     * <p>
+     * Do not modify the returned array!
+     */
+    public int[] getCandidates(int id, int meta) {
+        int key = id << 4 | meta;
+        if (id < 0 || meta < 0 || meta > 15 || key >= candidates.length) return all;
+        return candidates[key];
+    }
+
+    /**
+     * Whether the valid entry check of the fix at this index must still be checked, for each candidate block, as it
+     * could not be evaluated whilst compiling.
+     */
+    public boolean needsCheck(int index) {
+        return needsCheck[index];
+    }
+
+    /**
+     * Gets the ids of blocks that may be changed when rewriting: ids with any candidate fix, and ids which are saved as a
+     * different id, due to remapping.
+     */
+    public BlockIdBitmap getRewrittenIds() {
+        return rewrittenIds;
+    }
+
+    @NotNull
+    public static BlockFixTable compile(List<? extends DataFix<?>> blockFixes, ResourceLocation[] idToBlock,
+                                        int[] idToCurrentId) {
+        var time = System.currentTimeMillis();
+
+        var fixes = blockFixes.stream()
+                .filter((fix) -> fix instanceof DataFix.BlockFix)
+                .map((fix) -> (DataFix.BlockFix) fix)
+                .toArray(DataFix.BlockFix[]::new);
+
+        int[][] candidates = new int[idToBlock.length << 4][];
+        boolean[] needsCheck = new boolean[fixes.length];
+        Map<IntArrayList, int[]> shared = new Object2ObjectOpenHashMap<>();
+        var state = new BlockStateLike();
+        var matched = new IntArrayList();
+        var rewrittenIds = new BlockIdBitmap();
+
+        for (int id = 0; id < idToBlock.length; id++) {
+            if (idToCurrentId[id] != id) rewrittenIds.set(id);
+
+            for (int meta = 0; meta < 16; meta++) {
+                int key = id << 4 | meta;
+                var rl = idToBlock[id];
+                if (rl == null || fixes.length == 0) {
+                    candidates[key] = NONE;
+                    continue;
+                }
+
+                matched.clear();
+                for (int i = 0; i < fixes.length; i++) {
+                    state.reset(id, rl, (short) meta, 0, 0, 0);
+                    if (matches(fixes[i], state, needsCheck, i)) matched.add(i);
+                }
+
+                if (matched.isEmpty()) {
+                    candidates[key] = NONE;
+                    continue;
+                }
+                var existing = shared.get(matched);
+                if (existing == null) {
+                    existing = matched.toIntArray();
+                    shared.put(new IntArrayList(matched), existing);
+                }
+                candidates[key] = existing;
+                rewrittenIds.set(id);
+            }
+        }
+
+        NomiLabs.LOGGER.info("Compiling Block Fix Table ({} fixes, {} ids) took {}ms", fixes.length,
+                idToBlock.length, System.currentTimeMillis() - time);
+        return new BlockFixTable(fixes, candidates, needsCheck, rewrittenIds);
+    }
+
+    private static boolean matches(DataFix.BlockFix fix, BlockStateLike state, boolean[] needsCheck, int index) {
+        try {
+            return fix.validEntry.apply(state);
+        } catch (RuntimeException e) {
+            // Keep it as a candidate, but check it directly when fixing
+            needsCheck[index] = true;
+            return true;
+        }
+    }
+}
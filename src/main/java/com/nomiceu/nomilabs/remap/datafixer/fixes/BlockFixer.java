@@ -8,8 +8,8 @@ import org.jetbrains.annotations.NotNull;
 import com.nomiceu.nomilabs.NomiLabs;
 import com.nomiceu.nomilabs.remap.LabsRemapHelper;
 import com.nomiceu.nomilabs.remap.datafixer.DataFix;
-import com.nomiceu.nomilabs.remap.datafixer.LabsFixes;
-import com.nomiceu.nomilabs.remap.datafixer.types.LabsFixTypes;
+import com.nomiceu.nomilabs.remap.datafixer.DataFixerHandler;
+import com.nomiceu.nomilabs.remap.datafixer.storage.BlockStateLike;
 
 public class BlockFixer implements IFixableData {
 
@@ -20,25 +20,47 @@ public class BlockFixer implements IFixableData {
 
     @Override
     public @NotNull NBTTagCompound fixTagCompound(@NotNull NBTTagCompound compound) {
-        var blockFixes = LabsFixes.fixes.get(LabsFixTypes.FixerTypes.CHUNK);
+        var table = DataFixerHandler.getBlockFixTable();
+        var blockFixes = table.getFixes();
         LabsRemapHelper.rewriteBlocks(compound, (state) -> {
-            for (var fix : blockFixes) {
-                if (!(fix instanceof DataFix.BlockFix blockFix)) continue;
-                if (!blockFix.validEntry.apply(state)) continue;
-                if (blockFix.teNeeded)
-                    state.setTileEntityTag(LabsRemapHelper.getPosToTileEntityMap(compound).get(state.pos));
-                if (blockFix.secondaryValidEntry != null && !blockFix.secondaryValidEntry.apply(state)) continue;
-                var oldState = state.copy();
-                blockFix.transform.accept(state);
-                NomiLabs.LOGGER.debug("[Data Fixer] Changed Block: {} @ {} to {} @ {} at Pos: {}. (ID: {} to {})",
-                        oldState.rl, oldState.meta, state.rl, state.meta, state.pos, state.getOldId(), state.getId());
-                if (blockFix.teNeeded)
-                    NomiLabs.LOGGER.debug("[Data Fixer] Changed Tile Entity With Above Block: {} to {}.",
-                            oldState.tileEntityTag, state.tileEntityTag);
+            var rl = state.rl;
+            var meta = state.meta;
+            for (int index : table.getCandidates(state.getOldId(), meta)) {
+                if (table.needsCheck(index) && !blockFixes[index].validEntry.apply(state)) continue;
+
                 // Don't return, allow other block fixes to apply
+                if (!apply(blockFixes[index], state, compound)) continue;
+                if (state.rl == rl && state.meta == meta) continue;
+
+                // Candidates are only valid for the original block, check the remaining fixes directly
+                for (int i = index + 1; i < blockFixes.length; i++) {
+                    if (!blockFixes[i].validEntry.apply(state)) continue;
+                    apply(blockFixes[i], state, compound);
+                }
+                break;
             }
             return state;
-        });
+        }, table.getRewrittenIds());
         return compound;
     }
+
+    /**
+     * Applies a fix whose valid entry check has already passed.
+     *
+     * @return Whether the fix was applied.
+     */
+    private static boolean apply(DataFix.BlockFix blockFix, BlockStateLike state, NBTTagCompound compound) {
+        if (blockFix.teNeeded)
+            state.setTileEntityTag(LabsRemapHelper.getChunkTileEntities(compound)
+                    .get(state.pos.getX(), state.pos.getY(), state.pos.getZ()));
+        if (blockFix.secondaryValidEntry != null && !blockFix.secondaryValidEntry.apply(state)) return false;
+        var oldState = state.copy();
+        blockFix.transform.accept(state);
+        NomiLabs.LOGGER.debug("[Data Fixer] Changed Block: {} @ {} to {} @ {} at Pos: {}. (ID: {} to {})",
+                oldState.rl, oldState.meta, state.rl, state.meta, oldState.pos, state.getOldId(), state.getId());
+        if (blockFix.teNeeded)
+            NomiLabs.LOGGER.debug("[Data Fixer] Changed Tile Entity With Above Block: {} to {}.",
+                    oldState.tileEntityTag, state.tileEntityTag);
+        return true;
+    }
 }
@@ -0,0 +1,57 @@
+package com.nomiceu.nomilabs.remap.datafixer.fixes;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.minecraft.util.ResourceLocation;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.nomiceu.nomilabs.remap.datafixer.DataFix;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Index from Registry Name to the Item Fixes that may apply to stacks of that item, using the items and namespaces
+ * each fix declares (see {@link DataFix.ItemFix#forItems(ResourceLocation...)}).
+ * <p>
+ * Candidates of each Registry Name are computed the first time it is seen, then cached. The cache is concurrent, as
+ * items may be fixed in parallel by the Offline World Fixer.
+ * <p>
+ * Candidates only hold for the stack's original item; once a fix changes the item, the remaining fixes must be checked
+ * directly.
+ */
+public class ItemFixIndex {
+
+    private final DataFix.ItemFix[] fixes;
+    private final Map<ResourceLocation, int[]> candidates = new ConcurrentHashMap<>();
+
+    public ItemFixIndex(@NotNull List<DataFix.ItemFix> itemFixes) {
+        this.fixes = itemFixes.toArray(new DataFix.ItemFix[0]);
+    }
+
+    /**
+     * Gets all fixes, in the order they should be applied. Candidates are indices into this array.
+     */
+    public DataFix.ItemFix[] getFixes() {
+        return fixes;
+    }
+
+    /**
+     * Gets the indices, in ascending order, of the fixes that may apply to stacks of this item.
+     * <p>
+     * Do not modify the returned array!
+     */
+    public int[] getCandidates(@NotNull ResourceLocation rl) {
+        return candidates.computeIfAbsent(rl, this::computeCandidates);
+    }
+
+    private int[] computeCandidates(ResourceLocation rl) {
+        var result = new IntArrayList();
+        for (int i = 0; i < fixes.length; i++) {
+            if (fixes[i].mayApplyTo(rl)) result.add(i);
+        }
+        return result.toIntArray();
+    }
+}
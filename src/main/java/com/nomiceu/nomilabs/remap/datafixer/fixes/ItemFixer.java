@@ -1,6 +1,7 @@
 package com.nomiceu.nomilabs.remap.datafixer.fixes;
 
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.datafix.IFixableData;
 
 import org.jetbrains.annotations.NotNull;
@@ -10,7 +11,6 @@ import com.nomiceu.nomilabs.remap.LabsRemapHelper;
 import com.nomiceu.nomilabs.remap.datafixer.DataFix;
 import com.nomiceu.nomilabs.remap.datafixer.LabsFixes;
 import com.nomiceu.nomilabs.remap.datafixer.storage.ItemStackLike;
-import com.nomiceu.nomilabs.remap.datafixer.types.LabsFixTypes;
 
 public class ItemFixer implements IFixableData {
 
@@ -21,15 +21,32 @@ public class ItemFixer implements IFixableData {
 
     @Override
     public @NotNull NBTTagCompound fixTagCompound(@NotNull NBTTagCompound compound) {
-        var stack = new ItemStackLike(compound);
-        for (var fix : LabsFixes.fixes.get(LabsFixTypes.FixerTypes.ITEM)) {
-            if (!(fix instanceof DataFix.ItemFix itemFix)) continue;
-            if (!itemFix.validEntry.apply(stack)) continue;
-            itemFix.transform.accept(stack);
-            var oldCompound = compound.copy();
-            NomiLabs.LOGGER.debug("[Data Fixer] Changed Stack: {} to {}", oldCompound, stack.changeCompound(compound));
+        var rl = new ResourceLocation(compound.getString("id"));
+        var index = LabsFixes.itemFixIndex;
+        var candidates = index.getCandidates(rl);
+        if (candidates.length == 0) return compound;
+
+        var itemFixes = index.getFixes();
+        var stack = new ItemStackLike(compound, rl);
+        for (int candidate : candidates) {
+            if (!itemFixes[candidate].validEntry.apply(stack)) continue;
+            apply(itemFixes[candidate], stack, compound);
             // Don't return, allow other item fixes to apply
+            if (stack.rl == rl) continue;
+
+            // Candidates are only valid for the original item, check the remaining fixes directly
+            for (int i = candidate + 1; i < itemFixes.length; i++) {
+                if (!itemFixes[i].validEntry.apply(stack)) continue;
+                apply(itemFixes[i], stack, compound);
+            }
+            break;
         }
         return compound;
     }
+
+    private static void apply(DataFix.ItemFix itemFix, ItemStackLike stack, NBTTagCompound compound) {
+        itemFix.transform.accept(stack);
+        var oldCompound = compound.copy();
+        NomiLabs.LOGGER.debug("[Data Fixer] Changed Stack: {} to {}", oldCompound, stack.changeCompound(compound));
+    }
 }
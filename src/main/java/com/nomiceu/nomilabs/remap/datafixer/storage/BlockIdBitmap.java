@@ -0,0 +1,78 @@
+package com.nomiceu.nomilabs.remap.datafixer.storage;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.nomiceu.nomilabs.remap.datafixer.DataFixerHandler;
+
+/**
+ * Bitmap of the block ids (up to {@link DataFixerHandler#SECTION_ID_COUNT}) that can be stored in a chunk section.
+ * <p>
+ * Used to prescan a section's Blocks and Add arrays, so sections without any relevant id can be skipped entirely.
+ */
+public class BlockIdBitmap {
+
+    private static final int WORDS = DataFixerHandler.SECTION_ID_COUNT >> 6;
+
+    /* Ids 0-255, which are the only ids possible in a section without an Add array, are in the first 4 words */
+    private static final int LOW_ID_WORDS = 256 >> 6;
+
+    private final long[] ids = new long[WORDS];
+
+    /* The low 8 bits (Blocks byte) of every id in the bitmap, for a first pass over sections with an Add array */
+    private final long[] lowBytes = new long[LOW_ID_WORDS];
+
+    private boolean empty = true;
+
+    public void set(int id) {
+        if (id < 0 || id >= DataFixerHandler.SECTION_ID_COUNT) return;
+        ids[id >>> 6] |= 1L << id;
+        int low = id & 0xFF;
+        lowBytes[low >>> 6] |= 1L << low;
+        empty = false;
+    }
+
+    public boolean contains(int id) {
+        if (id < 0 || id >= DataFixerHandler.SECTION_ID_COUNT) return false;
+        return (ids[id >>> 6] & 1L << id) != 0;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Whether any block in the section has an id in this bitmap.
+     */
+    public boolean anyIn(byte[] blocks, @Nullable byte[] add) {
+        if (empty) return false;
+
+        if (add == null) {
+            // Only ids 0-255 are possible, check if any are present a word (64 ids) at a time
+            boolean anyLow = false;
+            for (int i = 0; i < LOW_ID_WORDS; i++) {
+                if (ids[i] != 0) {
+                    anyLow = true;
+                    break;
+                }
+            }
+            if (!anyLow) return false;
+
+            for (byte block : blocks) {
+                int id = block & 0xFF;
+                if ((ids[id >>> 6] & 1L << id) != 0) return true;
+            }
+            return false;
+        }
+
+        for (int i = 0; i < blocks.length; i++) {
+            int low = blocks[i] & 0xFF;
+            // Filter by the low byte first, then check the full id
+            if ((lowBytes[low >>> 6] & 1L << low) == 0) continue;
+
+            int ext = add[i >> 1];
+            ext = (i & 1) == 0 ? ext & 0x0F : ext >> 4 & 0x0F;
+            if (contains(low | ext << 8)) return true;
+        }
+        return false;
+    }
+}
@@ -16,7 +16,7 @@ import com.nomiceu.nomilabs.remap.datafixer.DataFixerHandler;
 @SuppressWarnings({ "UnusedReturnValue", "unused" })
 public class BlockStateLike {
 
-    private final int oldId;
+    private int oldId;
 
     public ResourceLocation rl;
     public short meta;
@@ -25,24 +25,53 @@ public class BlockStateLike {
     @Nullable
     public NBTTagCompound tileEntityTag;
 
+    @Nullable
+    private final BlockPos.MutableBlockPos mutablePos;
+
     public BlockStateLike(int id, short meta, BlockPos pos) {
         this.pos = pos;
-        this.rl = DataFixerHandler.getIdToBlockMap().getOrDefault(id, null);
+        this.mutablePos = null;
+        this.rl = DataFixerHandler.getIdToBlock(id);
         this.invalid = this.rl == null;
         this.meta = (short) Math.max(0, meta);
         this.oldId = id;
     }
 
+    /**
+     * Creates a reusable state, which must be {@link #reset(int, ResourceLocation, short, int, int, int) reset} for
+     * each block. Its pos is mutable, so use {@link BlockPos#toImmutable()} if it must be stored.
+     */
+    public BlockStateLike() {
+        this.mutablePos = new BlockPos.MutableBlockPos();
+        this.pos = mutablePos;
+        this.invalid = true;
+    }
+
     private BlockStateLike(int oldId, ResourceLocation rl, short meta, boolean invalid, BlockPos pos,
                            @Nullable NBTTagCompound tileEntityTag) {
         this.rl = rl;
         this.meta = meta;
         this.invalid = invalid;
         this.pos = pos;
+        this.mutablePos = null;
         this.tileEntityTag = tileEntityTag;
         this.oldId = oldId;
     }
 
+    /**
+     * Resets a reusable state to a new block, without any allocation.
+     */
+    public BlockStateLike reset(int id, @Nullable ResourceLocation rl, short meta, int x, int y, int z) {
+        if (mutablePos == null) throw new IllegalStateException("Cannot reset a Block State Like with a fixed pos!");
+        this.oldId = id;
+        this.rl = rl;
+        this.invalid = rl == null;
+        this.meta = (short) Math.max(0, meta);
+        this.tileEntityTag = null;
+        mutablePos.setPos(x, y, z);
+        return this;
+    }
+
     public BlockStateLike setRl(ResourceLocation newRl) {
         rl = newRl;
         return this;
@@ -79,6 +108,7 @@ public class BlockStateLike {
     }
 
     public BlockStateLike copy() {
-        return new BlockStateLike(oldId, rl, meta, invalid, pos, tileEntityTag != null ? tileEntityTag.copy() : null);
+        return new BlockStateLike(oldId, rl, meta, invalid, pos.toImmutable(),
+                tileEntityTag != null ? tileEntityTag.copy() : null);
     }
 }
@@ -0,0 +1,92 @@
+package com.nomiceu.nomilabs.remap.datafixer.storage;
+
+import java.util.List;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraftforge.common.util.Constants;
+
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * The Tile Entities of the chunk being rewritten, keyed by their packed index in the chunk:
+ * {@code y << 8 | z << 4 | x}, the same as a section's block index, but with the full y.
+ * <p>
+ * Loaded from the chunk's Tile Entities list the first time a fix needs one, and cleared once the chunk is rewritten,
+ * so no Tile Entity NBT is held between chunks. Looking up or replacing a Tile Entity does not allocate.
+ */
+public class ChunkTileEntities {
+
+    private final Int2ObjectLinkedOpenHashMap<NBTTagCompound> byIndex = new Int2ObjectLinkedOpenHashMap<>();
+
+    /* Tile Entities outside the chunk (corrupted), which cannot be indexed, but must still be kept */
+    private final List<NBTTagCompound> unindexed = new ObjectArrayList<>();
+
+    private int chunkX;
+    private int chunkZ;
+    private boolean loaded;
+
+    /**
+     * Loads the Tile Entities of a chunk, replacing any previously loaded.
+     */
+    public void load(NBTTagCompound levelTag) {
+        clear();
+        chunkX = levelTag.getInteger("xPos");
+        chunkZ = levelTag.getInteger("zPos");
+        loaded = true;
+
+        // Returns empty if doesn't exist
+        NBTTagList tileEntities = levelTag.getTagList("TileEntities", Constants.NBT.TAG_COMPOUND);
+        for (int i = 0; i < tileEntities.tagCount(); i++) {
+            var tag = tileEntities.getCompoundTagAt(i);
+            put(tag.getInteger("x"), tag.getInteger("y"), tag.getInteger("z"), tag);
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @Nullable
+    public NBTTagCompound get(int x, int y, int z) {
+        int index = getIndex(x, y, z);
+        if (index < 0) return null;
+        return byIndex.get(index);
+    }
+
+    /**
+     * Sets the Tile Entity at a position, replacing any existing one.
+     */
+    public void put(int x, int y, int z, NBTTagCompound tag) {
+        int index = getIndex(x, y, z);
+        if (index < 0) unindexed.add(tag);
+        else byIndex.put(index, tag);
+    }
+
+    /**
+     * Creates a new Tile Entities list, to be saved back into the chunk.
+     */
+    public NBTTagList toTagList() {
+        var list = new NBTTagList();
+        byIndex.values().forEach(list::appendTag);
+        unindexed.forEach(list::appendTag);
+        return list;
+    }
+
+    public void clear() {
+        byIndex.clear();
+        unindexed.clear();
+        loaded = false;
+    }
+
+    /**
+     * Gets the packed index of a position in this chunk, or -1 if it is outside this chunk.
+     */
+    private int getIndex(int x, int y, int z) {
+        if (x >> 4 != chunkX || z >> 4 != chunkZ || y < 0 || y > 255) return -1;
+        return y << 8 | (z & 0x0F) << 4 | x & 0x0F;
+    }
+}
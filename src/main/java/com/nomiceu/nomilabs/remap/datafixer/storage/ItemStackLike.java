@@ -21,7 +21,14 @@ public class ItemStackLike {
     public NBTTagCompound tag;
 
     public ItemStackLike(NBTTagCompound compound) {
-        this.rl = new ResourceLocation(compound.getString("id"));
+        this(compound, new ResourceLocation(compound.getString("id")));
+    }
+
+    /**
+     * Creates a stack from the compound, with an already parsed Resource Location of its id.
+     */
+    public ItemStackLike(NBTTagCompound compound, ResourceLocation rl) {
+        this.rl = rl;
         this.meta = (short) Math.max(0, compound.getShort("Damage"));
         this.count = Math.max(0, compound.getInteger("Count"));
 
@@ -14,10 +14,13 @@ public class ChunkWalker implements IDataWalker {
 
     @Override
     public @NotNull NBTTagCompound process(@NotNull IDataFixer fixer, @NotNull NBTTagCompound compound, int versionIn) {
-        if (DataFixerHandler.fixNotAvailable() ||
+        if (DataFixerHandler.fixNotAvailable() || DataFixerHandler.chunksFixedOffline() ||
+                DataFixerHandler.chunkUpToDate(compound) ||
                 !LabsFixes.fixes.containsKey(LabsFixTypes.FixerTypes.CHUNK))
             return compound;
 
-        return fixer.process(LabsFixTypes.FixerTypes.CHUNK, compound, versionIn);
+        var fixed = fixer.process(LabsFixTypes.FixerTypes.CHUNK, compound, versionIn);
+        DataFixerHandler.stampChunk(fixed);
+        return fixed;
     }
 }
@@ -1,5 +1,7 @@
 package com.nomiceu.nomilabs.util;
 
+import java.util.function.Supplier;
+
 import com.cleanroommc.groovyscript.GroovyScript;
 import com.cleanroommc.groovyscript.api.GroovyLog;
 import com.nomiceu.nomilabs.NomiLabs;
@@ -7,10 +9,52 @@ import com.nomiceu.nomilabs.NomiLabs;
 public class LabsGroovyHelper {
 
     /**
-     * Whether Labs-Groovy Helpers are running.<br>
+     * Depth of Labs-Groovy Scopes on each thread.
+     */
+    private static final ThreadLocal<int[]> labsGroovyDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * Whether Labs-Groovy Helpers are running on this thread.<br>
      * Only includes those that run after Groovy Script Load (recycling, composition, etc.)
+     * <p>
+     * Scoped per thread, so recipes built on other threads are not mis-attributed. Work handed to other threads
+     * should be wrapped via {@link #wrapLabsGroovy(Runnable)} or {@link #wrapLabsGroovy(Supplier)}.
+     */
+    public static boolean isLabsGroovyRunning() {
+        return labsGroovyDepth.get()[0] > 0;
+    }
+
+    /**
+     * Opens a Labs-Groovy Scope on this thread. Use with try-with-resources.
      */
-    public static boolean LABS_GROOVY_RUNNING = false;
+    public static LabsGroovyScope labsGroovyScope() {
+        labsGroovyDepth.get()[0]++;
+        return new LabsGroovyScope();
+    }
+
+    /**
+     * Wraps a task, so that it runs in a Labs-Groovy Scope if, and only if, the calling thread is currently in one.
+     */
+    public static Runnable wrapLabsGroovy(Runnable task) {
+        if (!isLabsGroovyRunning()) return task;
+        return () -> {
+            try (var ignored = labsGroovyScope()) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * Wraps a task, so that it runs in a Labs-Groovy Scope if, and only if, the calling thread is currently in one.
+     */
+    public static <T> Supplier<T> wrapLabsGroovy(Supplier<T> task) {
+        if (!isLabsGroovyRunning()) return task;
+        return () -> {
+            try (var ignored = labsGroovyScope()) {
+                return task.get();
+            }
+        };
+    }
 
     public static boolean isRunningGroovyScripts() {
         return GroovyScript.getSandbox().isRunning();
@@ -23,4 +67,18 @@ public class LabsGroovyHelper {
             NomiLabs.LOGGER.throwing(e);
         }
     }
+
+    public static class LabsGroovyScope implements AutoCloseable {
+
+        private boolean closed = false;
+
+        private LabsGroovyScope() {}
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            labsGroovyDepth.get()[0]--;
+        }
+    }
 }